@@ -0,0 +1,52 @@
+package org.floric.studies.dellogics.jfr;
+
+import org.floric.studies.dellogics.model.search.SearchListener;
+import org.floric.studies.dellogics.model.search.SearchPhase;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// reports solver phases and summaries as flight recorder events, needs a jdk with jdk.jfr (11 or later)
+public class JfrSearchListener implements SearchListener {
+    private final Map<SearchPhase, PhaseEvent> runningPhases = new EnumMap<>(SearchPhase.class);
+
+    @Override
+    public void onPhaseStarted(SearchPhase phase) {
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.begin();
+            runningPhases.put(phase, event);
+        }
+    }
+
+    @Override
+    public void onPhaseFinished(SearchPhase phase, long nanos) {
+        PhaseEvent event = runningPhases.remove(phase);
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onSearchFinished(SearchStatistics statistics) {
+        SearchSummaryEvent event = new SearchSummaryEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+
+        event.status = String.valueOf(statistics.getStatus());
+        event.expandedNodes = statistics.getExpandedNodes();
+        event.generatedNodes = statistics.getGeneratedNodes();
+        event.duplicateNodes = statistics.getDuplicateNodes();
+        event.peakOpenNodes = statistics.getPeakOpenNodes();
+        event.branchingFactor = statistics.getBranchingFactor();
+        event.pruningRatio = statistics.getPruningRatio();
+        event.groundingTime = statistics.getPhaseNanos(SearchPhase.GROUNDING);
+        event.searchTime = statistics.getPhaseNanos(SearchPhase.SEARCH);
+        event.applicabilityTime = statistics.getPhaseNanos(SearchPhase.APPLICABILITY);
+        event.applicationTime = statistics.getPhaseNanos(SearchPhase.APPLICATION);
+        event.commit();
+    }
+}
@@ -0,0 +1,16 @@
+package org.floric.studies.dellogics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.floric.studies.dellogics.SearchPhase")
+@Label("Search Phase")
+@Category({"Planning", "Search"})
+@Description("Grounding or search phase of one solver call")
+public class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,51 @@
+package org.floric.studies.dellogics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("org.floric.studies.dellogics.SearchSummary")
+@Label("Search Summary")
+@Category({"Planning", "Search"})
+@Description("Statistics of a finished solver call")
+public class SearchSummaryEvent extends Event {
+    @Label("Status")
+    String status;
+
+    @Label("Expanded Nodes")
+    long expandedNodes;
+
+    @Label("Generated Nodes")
+    long generatedNodes;
+
+    @Label("Duplicate Nodes")
+    long duplicateNodes;
+
+    @Label("Peak Open Nodes")
+    long peakOpenNodes;
+
+    @Label("Branching Factor")
+    double branchingFactor;
+
+    @Label("Pruning Ratio")
+    double pruningRatio;
+
+    @Label("Grounding Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long groundingTime;
+
+    @Label("Search Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long searchTime;
+
+    @Label("Applicability Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long applicabilityTime;
+
+    @Label("Application Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long applicationTime;
+}
@@ -0,0 +1,57 @@
+package org.floric.studies.dellogics.benchmark;
+
+import org.floric.studies.dellogics.model.strips.*;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.Grounder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ActionSchemeBenchmark {
+
+    @Param({"gripper", "blocksworld", "logistics"})
+    private String domain;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private Set<InstancedPredicate> state;
+    private CompiledActionScheme scheme;
+    private List<Symbol> symbols;
+
+    @Setup
+    public void setUp() {
+        StripsPlanningTask task = StripsTaskGenerator.create(domain, size);
+        GroundedTask groundedTask = new Grounder().ground(task);
+
+        // pick any action applicable in the starting state
+        GroundAction action = groundedTask.getActions().stream()
+                .filter(groundAction -> groundAction.isApplicable(groundedTask.getInitialState()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No applicable action found!"));
+
+        state = task.getStartingState();
+        // validation happens once here, the benchmark measures the runtime path only
+        scheme = action.getApplication().getActionScheme().getCompiledScheme();
+        symbols = action.getApplication().getSymbols();
+    }
+
+    @Benchmark
+    public boolean canApply() {
+        return scheme.canApply(symbols, state);
+    }
+
+    @Benchmark
+    public Set<InstancedPredicate> apply() {
+        return scheme.apply(symbols, state);
+    }
+}
@@ -0,0 +1,67 @@
+package org.floric.studies.dellogics.benchmark;
+
+import org.floric.studies.dellogics.model.classicalplanning.Action;
+import org.floric.studies.dellogics.model.classicalplanning.ClassicalPlanningSolver;
+import org.floric.studies.dellogics.model.classicalplanning.ClassicalPlanningTask;
+import org.floric.studies.dellogics.model.classicalplanning.GraphSearchMode;
+import org.floric.studies.dellogics.model.classicalplanning.StateGraph;
+import org.floric.studies.dellogics.model.classicalplanning.StateGraphFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassicalPlanningSolverBenchmark {
+
+    @Param({"1000", "100000"})
+    private int stateCount;
+
+    @Param({"2", "8"})
+    private int branchingFactor;
+
+    private ClassicalPlanningTask task;
+    private StateGraph graph;
+    private StateGraph mappedGraph;
+
+    @Setup
+    public void setUp() throws IOException {
+        task = ClassicalTaskGenerator.create(stateCount, branchingFactor, 42);
+        graph = StateGraph.of(task.getDomain());
+
+        Path file = Files.createTempFile("state-graph", ".bin");
+        file.toFile().deleteOnExit();
+        StateGraphFile.write(graph, file);
+        mappedGraph = StateGraphFile.open(file);
+    }
+
+    // includes compiling the domain to the state graph
+    @Benchmark
+    public Optional<List<Action>> getBestSolution() {
+        return new ClassicalPlanningSolver().getBestSolution(task);
+    }
+
+    @Benchmark
+    public Optional<List<Action>> getBestSolutionOnCompiledGraph() {
+        return new ClassicalPlanningSolver().getBestSolution(graph, task.getInitialState(), task.getGoalStates());
+    }
+
+    @Benchmark
+    public Optional<List<Action>> getBestSolutionOnMappedGraph() {
+        return new ClassicalPlanningSolver().getBestSolution(mappedGraph, task.getInitialState(), task.getGoalStates());
+    }
+
+    @Benchmark
+    public Optional<List<Action>> getBestSolutionBidirectional() {
+        return new ClassicalPlanningSolver(GraphSearchMode.BIDIRECTIONAL).getBestSolution(graph, task.getInitialState(), task.getGoalStates());
+    }
+}
@@ -0,0 +1,39 @@
+package org.floric.studies.dellogics.benchmark;
+
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.classicalplanning.*;
+
+import java.util.Random;
+import java.util.Set;
+
+public class ClassicalTaskGenerator {
+
+    // random graph where every state has the given number of outgoing transitions, one of them to the next state
+    public static ClassicalPlanningTask create(int stateCount, int branchingFactor, long seed) {
+        Random random = new Random(seed);
+
+        Action[] actions = new Action[branchingFactor];
+        for (int i = 0; i < branchingFactor; i++) {
+            String description = "Action" + i;
+            actions[i] = () -> description;
+        }
+
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            String description = "State" + i;
+            states[i] = () -> description;
+        }
+
+        Set<StateTransitionFunction> transitionFunctions = Sets.newHashSet();
+        for (int i = 0; i < stateCount; i++) {
+            transitionFunctions.add(new StateTransitionFunction(states[i], states[(i + 1) % stateCount], actions[0]));
+
+            for (int j = 1; j < branchingFactor; j++) {
+                transitionFunctions.add(new StateTransitionFunction(states[i], states[random.nextInt(stateCount)], actions[j]));
+            }
+        }
+
+        Domain domain = new Domain(Sets.newHashSet(actions), Sets.newHashSet(states), transitionFunctions);
+        return new ClassicalPlanningTask(domain, states[0], Sets.newHashSet(states[stateCount - 1]));
+    }
+}
@@ -0,0 +1,41 @@
+package org.floric.studies.dellogics.benchmark;
+
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.SearchMode;
+import org.floric.studies.dellogics.model.strips.StripsPlanningTask;
+import org.floric.studies.dellogics.model.strips.StripsSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StripsSolverBenchmark {
+
+    @Param({"gripper", "blocksworld", "logistics"})
+    private String domain;
+
+    @Param({"2", "4", "6"})
+    private int size;
+
+    @Param({"BREADTH_FIRST", "A_STAR", "GREEDY_BEST_FIRST", "SAT"})
+    private SearchMode searchMode;
+
+    private StripsPlanningTask task;
+
+    @Setup
+    public void setUp() {
+        task = StripsTaskGenerator.create(domain, size);
+    }
+
+    @Benchmark
+    public Optional<List<ActionApplication>> getBestSolution() {
+        return new StripsSolver(searchMode).getBestSolution(task);
+    }
+}
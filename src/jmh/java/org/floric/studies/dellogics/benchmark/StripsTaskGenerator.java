@@ -0,0 +1,173 @@
+package org.floric.studies.dellogics.benchmark;
+
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.*;
+
+import java.util.Set;
+
+public class StripsTaskGenerator {
+
+    public static StripsPlanningTask create(String domain, int size) {
+        switch (domain) {
+            case "gripper":
+                return createGripper(size);
+            case "blocksworld":
+                return createBlocksworld(size);
+            case "logistics":
+                return createLogistics(size, Math.max(2, size / 2));
+            default:
+                throw new IllegalArgumentException(String.format("Unknown domain %s!", domain));
+        }
+    }
+
+    // robot with two grippers moves all balls from room A to room B
+    public static StripsPlanningTask createGripper(int balls) {
+        PredicateType robotAt = new PredicateType("RobotAt", 1);
+        PredicateType at = new PredicateType("At", 2);
+        PredicateType free = new PredicateType("Free", 1);
+        PredicateType carry = new PredicateType("Carry", 2);
+        PredicateType isRoom = new PredicateType("IsRoom", 1);
+        PredicateType isBall = new PredicateType("IsBall", 1);
+        PredicateType isGripper = new PredicateType("IsGripper", 1);
+
+        ActionScheme move = new ActionScheme(
+                new Predicate(new PredicateType("Move", 2), "from", "to"),
+                Sets.newHashSet(new Predicate(robotAt, "from"), new Predicate(isRoom, "from"), new Predicate(isRoom, "to")),
+                Sets.newHashSet(new Predicate(robotAt, "to"), new Predicate(robotAt, false, "from"))
+        );
+        ActionScheme pick = new ActionScheme(
+                new Predicate(new PredicateType("Pick", 3), "ball", "room", "gripper"),
+                Sets.newHashSet(new Predicate(at, "ball", "room"), new Predicate(robotAt, "room"), new Predicate(free, "gripper"),
+                        new Predicate(isBall, "ball"), new Predicate(isRoom, "room"), new Predicate(isGripper, "gripper")),
+                Sets.newHashSet(new Predicate(carry, "ball", "gripper"), new Predicate(at, false, "ball", "room"), new Predicate(free, false, "gripper"))
+        );
+        ActionScheme drop = new ActionScheme(
+                new Predicate(new PredicateType("Drop", 3), "ball", "room", "gripper"),
+                Sets.newHashSet(new Predicate(carry, "ball", "gripper"), new Predicate(robotAt, "room"),
+                        new Predicate(isBall, "ball"), new Predicate(isRoom, "room"), new Predicate(isGripper, "gripper")),
+                Sets.newHashSet(new Predicate(at, "ball", "room"), new Predicate(free, "gripper"), new Predicate(carry, false, "ball", "gripper"))
+        );
+
+        Symbol roomA = new Symbol("RoomA");
+        Symbol roomB = new Symbol("RoomB");
+        Symbol left = new Symbol("Left");
+        Symbol right = new Symbol("Right");
+
+        IndexedState.Builder start = IndexedState.builder()
+                .add(robotAt, roomA)
+                .add(isRoom, roomA)
+                .add(isRoom, roomB)
+                .add(isGripper, left)
+                .add(isGripper, right)
+                .add(free, left)
+                .add(free, right);
+        IndexedState.Builder goal = IndexedState.builder();
+
+        for (int i = 0; i < balls; i++) {
+            Symbol ball = new Symbol("Ball" + i);
+            start.add(isBall, ball).add(at, ball, roomA);
+            goal.add(at, ball, roomB);
+        }
+
+        return new StripsPlanningTask(Sets.newHashSet(move, pick, drop), start.build(), goal.build());
+    }
+
+    // reverse a single tower of blocks
+    public static StripsPlanningTask createBlocksworld(int blocks) {
+        PredicateType on = new PredicateType("On", 2);
+        PredicateType onTable = new PredicateType("OnTable", 1);
+        PredicateType clear = new PredicateType("Clear", 1);
+        PredicateType holding = new PredicateType("Holding", 1);
+        PredicateType handEmpty = new PredicateType("HandEmpty", 0);
+        PredicateType isBlock = new PredicateType("IsBlock", 1);
+
+        ActionScheme pickUp = new ActionScheme(
+                new Predicate(new PredicateType("PickUp", 1), "x"),
+                Sets.newHashSet(new Predicate(clear, "x"), new Predicate(onTable, "x"), new Predicate(handEmpty), new Predicate(isBlock, "x")),
+                Sets.newHashSet(new Predicate(holding, "x"), new Predicate(onTable, false, "x"), new Predicate(clear, false, "x"), new Predicate(handEmpty, false))
+        );
+        ActionScheme putDown = new ActionScheme(
+                new Predicate(new PredicateType("PutDown", 1), "x"),
+                Sets.newHashSet(new Predicate(holding, "x"), new Predicate(isBlock, "x")),
+                Sets.newHashSet(new Predicate(onTable, "x"), new Predicate(clear, "x"), new Predicate(handEmpty), new Predicate(holding, false, "x"))
+        );
+        ActionScheme stack = new ActionScheme(
+                new Predicate(new PredicateType("Stack", 2), "x", "y"),
+                Sets.newHashSet(new Predicate(holding, "x"), new Predicate(clear, "y"), new Predicate(isBlock, "x"), new Predicate(isBlock, "y")),
+                Sets.newHashSet(new Predicate(on, "x", "y"), new Predicate(clear, "x"), new Predicate(handEmpty),
+                        new Predicate(holding, false, "x"), new Predicate(clear, false, "y"))
+        );
+        ActionScheme unstack = new ActionScheme(
+                new Predicate(new PredicateType("Unstack", 2), "x", "y"),
+                Sets.newHashSet(new Predicate(on, "x", "y"), new Predicate(clear, "x"), new Predicate(handEmpty), new Predicate(isBlock, "x"), new Predicate(isBlock, "y")),
+                Sets.newHashSet(new Predicate(holding, "x"), new Predicate(clear, "y"),
+                        new Predicate(on, false, "x", "y"), new Predicate(clear, false, "x"), new Predicate(handEmpty, false))
+        );
+
+        Symbol[] block = new Symbol[blocks];
+        for (int i = 0; i < blocks; i++) {
+            block[i] = new Symbol("Block" + i);
+        }
+
+        IndexedState.Builder start = IndexedState.builder().add(handEmpty);
+        IndexedState.Builder goal = IndexedState.builder();
+        for (int i = 0; i < blocks; i++) {
+            start.add(isBlock, block[i]);
+
+            // block 0 is on top at the start and at the bottom in the goal
+            if (i + 1 < blocks) {
+                start.add(on, block[i], block[i + 1]);
+                goal.add(on, block[i + 1], block[i]);
+            }
+        }
+        start.add(clear, block[0]).add(onTable, block[blocks - 1]);
+        goal.add(clear, block[blocks - 1]).add(onTable, block[0]);
+
+        return new StripsPlanningTask(Sets.newHashSet(pickUp, putDown, stack, unstack), start.build(), goal.build());
+    }
+
+    // one truck delivers every package to the next location
+    public static StripsPlanningTask createLogistics(int packages, int locations) {
+        PredicateType at = new PredicateType("At", 2);
+        PredicateType in = new PredicateType("In", 2);
+        PredicateType isTruck = new PredicateType("IsTruck", 1);
+        PredicateType isPackage = new PredicateType("IsPackage", 1);
+        PredicateType isLocation = new PredicateType("IsLocation", 1);
+
+        ActionScheme drive = new ActionScheme(
+                new Predicate(new PredicateType("Drive", 3), "truck", "from", "to"),
+                Sets.newHashSet(new Predicate(at, "truck", "from"), new Predicate(isTruck, "truck"), new Predicate(isLocation, "from"), new Predicate(isLocation, "to")),
+                Sets.newHashSet(new Predicate(at, "truck", "to"), new Predicate(at, false, "truck", "from"))
+        );
+        ActionScheme load = new ActionScheme(
+                new Predicate(new PredicateType("Load", 3), "pkg", "truck", "loc"),
+                Sets.newHashSet(new Predicate(at, "pkg", "loc"), new Predicate(at, "truck", "loc"),
+                        new Predicate(isPackage, "pkg"), new Predicate(isTruck, "truck"), new Predicate(isLocation, "loc")),
+                Sets.newHashSet(new Predicate(in, "pkg", "truck"), new Predicate(at, false, "pkg", "loc"))
+        );
+        ActionScheme unload = new ActionScheme(
+                new Predicate(new PredicateType("Unload", 3), "pkg", "truck", "loc"),
+                Sets.newHashSet(new Predicate(in, "pkg", "truck"), new Predicate(at, "truck", "loc"),
+                        new Predicate(isPackage, "pkg"), new Predicate(isTruck, "truck"), new Predicate(isLocation, "loc")),
+                Sets.newHashSet(new Predicate(at, "pkg", "loc"), new Predicate(in, false, "pkg", "truck"))
+        );
+
+        Symbol truck = new Symbol("Truck");
+        Symbol[] location = new Symbol[locations];
+        IndexedState.Builder start = IndexedState.builder().add(isTruck, truck);
+        for (int i = 0; i < locations; i++) {
+            location[i] = new Symbol("Location" + i);
+            start.add(isLocation, location[i]);
+        }
+        start.add(at, truck, location[0]);
+
+        IndexedState.Builder goal = IndexedState.builder();
+        for (int i = 0; i < packages; i++) {
+            Symbol pkg = new Symbol("Package" + i);
+            start.add(isPackage, pkg).add(at, pkg, location[i % locations]);
+            goal.add(at, pkg, location[(i + 1) % locations]);
+        }
+
+        return new StripsPlanningTask(Sets.newHashSet(drive, load, unload), start.build(), goal.build());
+    }
+}
@@ -0,0 +1,169 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// explicit domain compiled to compressed sparse rows, outgoing edges of state s are in [offsets[s], offsets[s + 1])
+// and the reverse rows hold the ids of the incoming edges
+public class ArrayStateGraph implements StateGraph {
+    private final List<State> states;
+    private final Map<State, Integer> stateIds;
+    private final List<Action> actions;
+    private final int[] offsets;
+    private final int[] edgeActions;
+    private final int[] edgeTargets;
+    private final int[] edgeSources;
+    private final int[] reverseOffsets;
+    private final int[] reverseEdges;
+
+    private ArrayStateGraph(List<State> states, Map<State, Integer> stateIds, List<Action> actions, int[] offsets, int[] edgeActions, int[] edgeTargets, int[] edgeSources) {
+        this.states = states;
+        this.stateIds = stateIds;
+        this.actions = actions;
+        this.offsets = offsets;
+        this.edgeActions = edgeActions;
+        this.edgeTargets = edgeTargets;
+        this.edgeSources = edgeSources;
+        this.reverseOffsets = createOffsets(edgeTargets, states.size());
+        this.reverseEdges = new int[edgeTargets.length];
+
+        int[] next = Arrays.copyOf(reverseOffsets, states.size());
+        for (int edge = 0; edge < edgeTargets.length; edge++) {
+            reverseEdges[next[edgeTargets[edge]]++] = edge;
+        }
+    }
+
+    public static ArrayStateGraph of(Domain domain) {
+        Collection<StateTransitionFunction> transitionFunctions = domain.getTransitionFunctions();
+        List<State> states = Lists.newArrayList();
+        Map<State, Integer> stateIds = Maps.newHashMap();
+        List<Action> actions = Lists.newArrayList();
+        Map<Action, Integer> actionIds = Maps.newHashMap();
+
+        domain.getStates().forEach(state -> getOrCreateId(state, states, stateIds));
+        domain.getActions().forEach(action -> getOrCreateId(action, actions, actionIds));
+
+        // first pass assigns ids and counts outgoing edges, second pass fills the rows
+        int edgeCount = transitionFunctions.size();
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        int[] labels = new int[edgeCount];
+        int edge = 0;
+        for (StateTransitionFunction transition : transitionFunctions) {
+            sources[edge] = getOrCreateId(transition.getOldState(), states, stateIds);
+            targets[edge] = getOrCreateId(transition.getNewState(), states, stateIds);
+            labels[edge] = getOrCreateId(transition.getAction(), actions, actionIds);
+            edge++;
+        }
+
+        int[] offsets = createOffsets(sources, states.size());
+        int[] next = Arrays.copyOf(offsets, states.size());
+        int[] edgeActions = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int[] edgeSources = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int position = next[sources[i]]++;
+            edgeActions[position] = labels[i];
+            edgeTargets[position] = targets[i];
+            edgeSources[position] = sources[i];
+        }
+
+        return new ArrayStateGraph(states, stateIds, actions, offsets, edgeActions, edgeTargets, edgeSources);
+    }
+
+    @Override
+    public int getStateCount() {
+        return states.size();
+    }
+
+    @Override
+    public int getActionCount() {
+        return actions.size();
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeTargets.length;
+    }
+
+    @Override
+    public int getId(State state) {
+        return stateIds.getOrDefault(state, UNKNOWN);
+    }
+
+    @Override
+    public State getState(int id) {
+        return states.get(id);
+    }
+
+    @Override
+    public Action getAction(int id) {
+        return actions.get(id);
+    }
+
+    @Override
+    public int getFirstEdge(int state) {
+        return offsets[state];
+    }
+
+    @Override
+    public int getLastEdge(int state) {
+        return offsets[state + 1];
+    }
+
+    @Override
+    public int getEdgeAction(int edge) {
+        return edgeActions[edge];
+    }
+
+    @Override
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    @Override
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    @Override
+    public int getFirstReverseEdge(int state) {
+        return reverseOffsets[state];
+    }
+
+    @Override
+    public int getLastReverseEdge(int state) {
+        return reverseOffsets[state + 1];
+    }
+
+    @Override
+    public int getReverseEdge(int position) {
+        return reverseEdges[position];
+    }
+
+    private static int[] createOffsets(int[] rows, int stateCount) {
+        int[] offsets = new int[stateCount + 1];
+        for (int row : rows) {
+            offsets[row + 1]++;
+        }
+        for (int state = 0; state < stateCount; state++) {
+            offsets[state + 1] += offsets[state];
+        }
+        return offsets;
+    }
+
+    private static <T> int getOrCreateId(T element, List<T> elements, Map<T, Integer> ids) {
+        Integer id = ids.get(element);
+        if (id == null) {
+            id = elements.size();
+            elements.add(element);
+            ids.put(element, id);
+        }
+        return id;
+    }
+}
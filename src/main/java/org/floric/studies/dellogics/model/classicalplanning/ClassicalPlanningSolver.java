@@ -1,17 +1,280 @@
 package org.floric.studies.dellogics.model.classicalplanning;
 
 import com.google.common.collect.Lists;
+import lombok.Getter;
 import org.floric.studies.dellogics.model.Solver;
+import org.floric.studies.dellogics.model.search.KShortestPlans;
+import org.floric.studies.dellogics.model.search.PhaseRecorder;
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchMonitor;
+import org.floric.studies.dellogics.model.search.SearchPhase;
+import org.floric.studies.dellogics.model.search.SearchResult;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ClassicalPlanningSolver implements Solver {
 
+    private final GraphSearchMode searchMode;
+
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    public ClassicalPlanningSolver() {
+        this(GraphSearchMode.BREADTH_FIRST);
+    }
+
+    public ClassicalPlanningSolver(GraphSearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
     public Optional<List<Action>> getBestSolution(ClassicalPlanningTask task) {
+        return getBestSolution(task, SearchControl.unlimited());
+    }
+
+    public Optional<List<Action>> getBestSolution(ClassicalPlanningTask task, SearchControl control) {
+        return findSolution(task, control).getPlan();
+    }
+
+    public Optional<List<Action>> getBestSolution(StateGraph graph, State initialState, Set<State> goalStates) {
+        return getBestSolution(graph, initialState, goalStates, SearchControl.unlimited());
+    }
+
+    public Optional<List<Action>> getBestSolution(StateGraph graph, State initialState, Set<State> goalStates, SearchControl control) {
+        return findSolution(graph, initialState, goalStates, control).getPlan();
+    }
+
+    public SearchResult<Action> findSolution(ClassicalPlanningTask task) {
+        return findSolution(task, SearchControl.unlimited());
+    }
+
+    public SearchResult<Action> findSolution(ClassicalPlanningTask task, SearchControl control) {
+        PhaseRecorder phases = new PhaseRecorder(control.getListener());
+        StateGraph graph = phases.record(SearchPhase.GROUNDING, () -> StateGraph.of(task.getDomain()));
+
+        return findSolution(graph, task.getInitialState(), task.getGoalStates(), control, phases);
+    }
+
+    public SearchResult<Action> findSolution(StateGraph graph, State initialState, Set<State> goalStates, SearchControl control) {
+        return findSolution(graph, initialState, goalStates, control, new PhaseRecorder(control.getListener()));
+    }
+
+    private SearchResult<Action> findSolution(StateGraph graph, State initialState, Set<State> goalStates, SearchControl control, PhaseRecorder phases) {
+        Optional<List<Action>> plan = phases.record(SearchPhase.SEARCH, () -> search(graph, initialState, goalStates, control));
+        phases.finish(statistics);
+
+        return new SearchResult<>(plan, statistics);
+    }
+
+    private Optional<List<Action>> search(StateGraph graph, State initialState, Set<State> goalStates, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+
+        try {
+            int initial = graph.getId(initialState);
+            int[] goals = getGoalIds(graph, goalStates);
+
+            Optional<List<Action>> plan = Optional.empty();
+            if (initial != StateGraph.UNKNOWN && goals.length > 0) {
+                plan = searchMode == GraphSearchMode.BIDIRECTIONAL ? searchBidirectional(graph, initial, goals, monitor) : searchForward(graph, initial, goals, monitor);
+            }
+
+            statistics.setStatus(monitor.getStatus(plan.isPresent()));
+            return plan;
+        } finally {
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+
+    // all acyclic plans in nondecreasing length, each one is only searched when it is consumed
+    public Stream<List<Action>> getSolutions(ClassicalPlanningTask task) {
+        return getSolutions(StateGraph.of(task.getDomain()), task.getInitialState(), task.getGoalStates());
+    }
+
+    public Stream<List<Action>> getSolutions(StateGraph graph, State initialState, Set<State> goalStates) {
+        int initial = graph.getId(initialState);
+        int[] goals = getGoalIds(graph, goalStates);
+        if (initial == StateGraph.UNKNOWN || goals.length == 0) {
+            return Stream.empty();
+        }
+
+        return KShortestPlans.stream(new StateGraphSearchProblem(graph, initial, goals))
+                .map(edges -> edges.stream()
+                        .map(edge -> graph.getAction(graph.getEdgeAction(edge)))
+                        .collect(Collectors.toList()));
+    }
+
+    private int[] getGoalIds(StateGraph graph, Set<State> goalStates) {
+        return goalStates.stream()
+                .mapToInt(graph::getId)
+                .filter(id -> id != StateGraph.UNKNOWN)
+                .distinct()
+                .toArray();
+    }
+
+    private Optional<List<Action>> searchForward(StateGraph graph, int initial, int[] goals, SearchMonitor monitor) {
+        boolean[] isGoal = new boolean[graph.getStateCount()];
+        for (int goal : goals) {
+            isGoal[goal] = true;
+        }
+
+        if (isGoal[initial]) {
+            return Optional.of(Lists.newArrayList());
+        }
+
+        // all actions cost the same, so breadth first search finds the shortest plan
+        int[] depths = createDepths(graph);
+        int[] parentEdges = new int[graph.getStateCount()];
+        depths[initial] = 0;
+
+        int[] queue = new int[graph.getStateCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = initial;
+
+        while (head < tail) {
+            if (monitor.shouldStop(statistics, tail - head)) {
+                return Optional.empty();
+            }
+
+            int state = queue[head++];
+            statistics.incrementExpandedNodes();
+
+            for (int edge = graph.getFirstEdge(state); edge < graph.getLastEdge(state); edge++) {
+                int target = graph.getEdgeTarget(edge);
+                if (depths[target] != StateGraph.UNKNOWN) {
+                    statistics.incrementDuplicateNodes();
+                    continue;
+                }
+
+                statistics.incrementGeneratedNodes();
+                depths[target] = depths[state] + 1;
+                parentEdges[target] = edge;
+
+                if (isGoal[target]) {
+                    List<Action> plan = Lists.newArrayList();
+                    addForwardPlan(graph, target, depths, parentEdges, plan);
+                    return Optional.of(plan);
+                }
+                queue[tail++] = target;
+            }
+            statistics.updatePeakOpenNodes(tail - head);
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<List<Action>> searchBidirectional(StateGraph graph, int initial, int[] goals, SearchMonitor monitor) {
+        int[] forwardDepths = createDepths(graph);
+        int[] backwardDepths = createDepths(graph);
+        int[] forwardEdges = new int[graph.getStateCount()];
+        int[] backwardEdges = new int[graph.getStateCount()];
+
+        forwardDepths[initial] = 0;
+        List<Integer> forwardLayer = Lists.newArrayList(initial);
+        List<Integer> backwardLayer = Lists.newArrayList();
+        for (int goal : goals) {
+            backwardDepths[goal] = 0;
+            backwardLayer.add(goal);
+        }
+
+        if (backwardDepths[initial] == 0) {
+            return Optional.of(Lists.newArrayList());
+        }
+
+        // complete layers are expanded, so the cheapest meeting edge of the first layer that meets is optimal
+        int meetingEdge = StateGraph.UNKNOWN;
+        int meetingCost = Integer.MAX_VALUE;
+
+        while (meetingEdge == StateGraph.UNKNOWN && !forwardLayer.isEmpty() && !backwardLayer.isEmpty() && !monitor.isStopped()) {
+            // grow the smaller side
+            boolean isForward = forwardLayer.size() <= backwardLayer.size();
+            List<Integer> nextLayer = Lists.newArrayList();
+
+            for (int state : isForward ? forwardLayer : backwardLayer) {
+                // an unfinished layer still yields a valid plan if the sides met already, it just might not be optimal
+                if (monitor.shouldStop(statistics, forwardLayer.size() + backwardLayer.size())) {
+                    break;
+                }
+
+                statistics.incrementExpandedNodes();
+                int first = isForward ? graph.getFirstEdge(state) : graph.getFirstReverseEdge(state);
+                int last = isForward ? graph.getLastEdge(state) : graph.getLastReverseEdge(state);
+
+                for (int position = first; position < last; position++) {
+                    int edge = isForward ? position : graph.getReverseEdge(position);
+                    int source = graph.getEdgeSource(edge);
+                    int target = graph.getEdgeTarget(edge);
+
+                    if (forwardDepths[source] != StateGraph.UNKNOWN && backwardDepths[target] != StateGraph.UNKNOWN) {
+                        int cost = forwardDepths[source] + 1 + backwardDepths[target];
+                        if (cost < meetingCost) {
+                            meetingCost = cost;
+                            meetingEdge = edge;
+                        }
+                    }
+
+                    if (isForward && forwardDepths[target] == StateGraph.UNKNOWN) {
+                        forwardDepths[target] = forwardDepths[source] + 1;
+                        forwardEdges[target] = edge;
+                        nextLayer.add(target);
+                        statistics.incrementGeneratedNodes();
+                    } else if (!isForward && backwardDepths[source] == StateGraph.UNKNOWN) {
+                        backwardDepths[source] = backwardDepths[target] + 1;
+                        backwardEdges[source] = edge;
+                        nextLayer.add(source);
+                        statistics.incrementGeneratedNodes();
+                    } else {
+                        statistics.incrementDuplicateNodes();
+                    }
+                }
+            }
+
+            if (isForward) {
+                forwardLayer = nextLayer;
+            } else {
+                backwardLayer = nextLayer;
+            }
+            statistics.updatePeakOpenNodes(forwardLayer.size() + backwardLayer.size());
+        }
+
+        if (meetingEdge == StateGraph.UNKNOWN) {
+            return Optional.empty();
+        }
+
+        List<Action> plan = Lists.newArrayList();
+        addForwardPlan(graph, graph.getEdgeSource(meetingEdge), forwardDepths, forwardEdges, plan);
+        plan.add(graph.getAction(graph.getEdgeAction(meetingEdge)));
+        for (int state = graph.getEdgeTarget(meetingEdge); backwardDepths[state] > 0; state = graph.getEdgeTarget(backwardEdges[state])) {
+            plan.add(graph.getAction(graph.getEdgeAction(backwardEdges[state])));
+        }
+
+        return Optional.of(plan);
+    }
+
+    private int[] createDepths(StateGraph graph) {
+        int[] depths = new int[graph.getStateCount()];
+        Arrays.fill(depths, StateGraph.UNKNOWN);
+        return depths;
+    }
+
+    private void addForwardPlan(StateGraph graph, int state, int[] depths, int[] parentEdges, List<Action> plan) {
+        List<Action> reversedPlan = Lists.newArrayList();
+        for (int current = state; depths[current] > 0; current = graph.getEdgeSource(parentEdges[current])) {
+            reversedPlan.add(graph.getAction(graph.getEdgeAction(parentEdges[current])));
+        }
+
+        plan.addAll(Lists.reverse(reversedPlan));
+    }
+
+    // exhaustive enumeration of all acyclic plans, only kept for comparison
+    public Optional<List<Action>> getBestSolutionFromAllPlans(ClassicalPlanningTask task) {
         Set<StateTransitionFunction> transitionFunctions = task.getDomain().getTransitionFunctions();
         Set<State> goalStates = task.getGoalStates();
         State initialState = task.getInitialState();
@@ -75,4 +338,29 @@ public class ClassicalPlanningSolver implements Solver {
 
         return matchingTransitionFunctions.get(0).getNewState();
     }
+
+    public State applyTransitionFunction(Action action, State state, StateGraph graph) {
+        int id = graph.getId(state);
+        int matchingCount = 0;
+        int target = StateGraph.UNKNOWN;
+
+        // only the outgoing edges of the state have to be checked
+        if (id != StateGraph.UNKNOWN) {
+            for (int edge = graph.getFirstEdge(id); edge < graph.getLastEdge(id); edge++) {
+                if (graph.getAction(graph.getEdgeAction(edge)).equals(action)) {
+                    target = graph.getEdgeTarget(edge);
+                    matchingCount++;
+                }
+            }
+        }
+
+        if (matchingCount != 1) {
+            throw new IllegalStateException(String.format(
+                    "Not exactly one matching transition found, instead found %s!",
+                    matchingCount
+            ));
+        }
+
+        return graph.getState(target);
+    }
 }
@@ -0,0 +1,7 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+public enum GraphSearchMode {
+    BREADTH_FIRST,
+    // alternates layers from the initial state and from all goal states until they meet
+    BIDIRECTIONAL
+}
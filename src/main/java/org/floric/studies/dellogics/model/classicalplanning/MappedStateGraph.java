@@ -0,0 +1,167 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+// state graph read directly from a mapped state graph file, states and actions are identified by their descriptions
+public class MappedStateGraph implements StateGraph {
+    private final int stateCount;
+    private final int actionCount;
+    private final int edgeCount;
+    private final IntBuffer stateStrings;
+    private final IntBuffer actionStrings;
+    private final IntBuffer offsets;
+    private final IntBuffer edgeActions;
+    private final IntBuffer edgeTargets;
+    private final IntBuffer edgeSources;
+    private final IntBuffer reverseOffsets;
+    private final IntBuffer reverseEdges;
+    private final IntBuffer slots;
+    private final ByteBuffer strings;
+
+    private int position = StateGraphFile.HEADER_INTS * Integer.BYTES;
+
+    MappedStateGraph(ByteBuffer buffer) {
+        stateCount = buffer.getInt(2 * Integer.BYTES);
+        actionCount = buffer.getInt(3 * Integer.BYTES);
+        edgeCount = buffer.getInt(4 * Integer.BYTES);
+        int slotCount = buffer.getInt(5 * Integer.BYTES);
+
+        stateStrings = sliceInts(buffer, stateCount + 1);
+        actionStrings = sliceInts(buffer, actionCount + 1);
+        offsets = sliceInts(buffer, stateCount + 1);
+        edgeActions = sliceInts(buffer, edgeCount);
+        edgeTargets = sliceInts(buffer, edgeCount);
+        edgeSources = sliceInts(buffer, edgeCount);
+        reverseOffsets = sliceInts(buffer, stateCount + 1);
+        reverseEdges = sliceInts(buffer, edgeCount);
+        slots = sliceInts(buffer, slotCount);
+        strings = slice(buffer, buffer.limit() - position);
+    }
+
+    @Override
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    @Override
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int getId(State state) {
+        String description = state.getDescription();
+        byte[] encoded = StateGraphFile.encode(description);
+        int slotCount = slots.limit();
+
+        for (int slot = StateGraphFile.getSlot(description.hashCode(), slotCount); slots.get(slot) != UNKNOWN; slot = (slot + 1) & (slotCount - 1)) {
+            if (isEqual(encoded, stateStrings.get(slots.get(slot)), stateStrings.get(slots.get(slot) + 1))) {
+                return slots.get(slot);
+            }
+        }
+
+        return UNKNOWN;
+    }
+
+    @Override
+    public State getState(int id) {
+        return new StoredState(decode(stateStrings.get(id), stateStrings.get(id + 1)));
+    }
+
+    @Override
+    public Action getAction(int id) {
+        return new StoredAction(decode(actionStrings.get(id), actionStrings.get(id + 1)));
+    }
+
+    @Override
+    public int getFirstEdge(int state) {
+        return offsets.get(state);
+    }
+
+    @Override
+    public int getLastEdge(int state) {
+        return offsets.get(state + 1);
+    }
+
+    @Override
+    public int getEdgeAction(int edge) {
+        return edgeActions.get(edge);
+    }
+
+    @Override
+    public int getEdgeTarget(int edge) {
+        return edgeTargets.get(edge);
+    }
+
+    @Override
+    public int getEdgeSource(int edge) {
+        return edgeSources.get(edge);
+    }
+
+    @Override
+    public int getFirstReverseEdge(int state) {
+        return reverseOffsets.get(state);
+    }
+
+    @Override
+    public int getLastReverseEdge(int state) {
+        return reverseOffsets.get(state + 1);
+    }
+
+    @Override
+    public int getReverseEdge(int position) {
+        return reverseEdges.get(position);
+    }
+
+    private boolean isEqual(byte[] encoded, int start, int end) {
+        if (end - start != encoded.length) {
+            return false;
+        }
+
+        for (int i = 0; i < encoded.length; i++) {
+            if (strings.get(start + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = strings.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private IntBuffer sliceInts(ByteBuffer buffer, int length) {
+        return slice(buffer, length * Integer.BYTES).asIntBuffer();
+    }
+
+    private ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.limit(position + length);
+        position += length;
+        return view.slice();
+    }
+
+    @Value
+    private static class StoredState implements State {
+        private String description;
+    }
+
+    @Value
+    private static class StoredAction implements Action {
+        private String description;
+    }
+}
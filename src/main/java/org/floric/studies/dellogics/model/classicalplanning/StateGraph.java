@@ -0,0 +1,41 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+// explicit state graph with dense ids for states, actions and edges
+public interface StateGraph {
+    int UNKNOWN = -1;
+
+    static StateGraph of(Domain domain) {
+        return ArrayStateGraph.of(domain);
+    }
+
+    int getStateCount();
+
+    int getActionCount();
+
+    int getEdgeCount();
+
+    int getId(State state);
+
+    State getState(int id);
+
+    Action getAction(int id);
+
+    // outgoing edges of a state are the ids in [getFirstEdge(state), getLastEdge(state))
+    int getFirstEdge(int state);
+
+    int getLastEdge(int state);
+
+    int getEdgeAction(int edge);
+
+    int getEdgeTarget(int edge);
+
+    int getEdgeSource(int edge);
+
+    // positions of the incoming edges of a state in the reverse rows
+    int getFirstReverseEdge(int state);
+
+    int getLastReverseEdge(int state);
+
+    // id of the forward edge at the given position of the reverse rows
+    int getReverseEdge(int position);
+}
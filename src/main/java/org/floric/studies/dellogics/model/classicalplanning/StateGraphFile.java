@@ -0,0 +1,132 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// binary layout: header, string offsets of states and actions, forward rows, edge arrays,
+// reverse rows, hash slots for looking up states by description and finally the utf-8 string data
+public class StateGraphFile {
+    static final int MAGIC = 0x53475246;
+    static final int VERSION = 1;
+    static final int HEADER_INTS = 6;
+
+    public static void write(Domain domain, Path file) throws IOException {
+        write(StateGraph.of(domain), file);
+    }
+
+    public static void write(StateGraph graph, Path file) throws IOException {
+        int stateCount = graph.getStateCount();
+        int actionCount = graph.getActionCount();
+        int edgeCount = graph.getEdgeCount();
+        int[] slots = createSlots(graph);
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(stateCount);
+            output.writeInt(actionCount);
+            output.writeInt(edgeCount);
+            output.writeInt(slots.length);
+
+            // string offsets are relative to the start of the string data
+            int stringOffset = 0;
+            output.writeInt(stringOffset);
+            for (int state = 0; state < stateCount; state++) {
+                stringOffset += encode(graph.getState(state).getDescription()).length;
+                output.writeInt(stringOffset);
+            }
+            output.writeInt(stringOffset);
+            for (int action = 0; action < actionCount; action++) {
+                stringOffset += encode(graph.getAction(action).getDescription()).length;
+                output.writeInt(stringOffset);
+            }
+
+            for (int state = 0; state < stateCount; state++) {
+                output.writeInt(graph.getFirstEdge(state));
+            }
+            output.writeInt(edgeCount);
+            for (int edge = 0; edge < edgeCount; edge++) {
+                output.writeInt(graph.getEdgeAction(edge));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                output.writeInt(graph.getEdgeTarget(edge));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                output.writeInt(graph.getEdgeSource(edge));
+            }
+            for (int state = 0; state < stateCount; state++) {
+                output.writeInt(graph.getFirstReverseEdge(state));
+            }
+            output.writeInt(edgeCount);
+            for (int position = 0; position < edgeCount; position++) {
+                output.writeInt(graph.getReverseEdge(position));
+            }
+            for (int slot : slots) {
+                output.writeInt(slot);
+            }
+
+            for (int state = 0; state < stateCount; state++) {
+                output.write(encode(graph.getState(state).getDescription()));
+            }
+            for (int action = 0; action < actionCount; action++) {
+                output.write(encode(graph.getAction(action).getDescription()));
+            }
+        }
+    }
+
+    // the graph is mapped read only, nothing of it is copied to the heap
+    public static MappedStateGraph open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(String.format("%s is too large to be mapped at once!", file));
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException(String.format("%s is no state graph file!", file));
+            }
+
+            return new MappedStateGraph(buffer);
+        }
+    }
+
+    static int getSlot(int hash, int slotCount) {
+        // spread the hash bits, the high ones are folded back in so big tables use all of their slots
+        int spread = hash * 0x9E3779B9;
+        return (spread ^ (spread >>> 16)) & (slotCount - 1);
+    }
+
+    static byte[] encode(String description) {
+        return description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // open addressing with linear probing, twice as many slots as states
+    private static int[] createSlots(StateGraph graph) {
+        int slotCount = Integer.highestOneBit(Math.max(graph.getStateCount(), 1) * 2 - 1) << 1;
+        int[] slots = new int[slotCount];
+        Arrays.fill(slots, StateGraph.UNKNOWN);
+
+        for (int state = 0; state < graph.getStateCount(); state++) {
+            String description = graph.getState(state).getDescription();
+            int slot = getSlot(description.hashCode(), slotCount);
+
+            while (slots[slot] != StateGraph.UNKNOWN) {
+                if (graph.getState(slots[slot]).getDescription().equals(description)) {
+                    throw new IllegalArgumentException(String.format("State description %s is not unique!", description));
+                }
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = state;
+        }
+
+        return slots;
+    }
+}
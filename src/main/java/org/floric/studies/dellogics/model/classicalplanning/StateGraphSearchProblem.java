@@ -0,0 +1,45 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+import com.google.common.collect.Lists;
+import org.floric.studies.dellogics.model.search.SearchProblem;
+import org.floric.studies.dellogics.model.search.Successor;
+
+import java.util.List;
+
+// state graph as generic search problem, states are state ids and actions are edge ids
+public class StateGraphSearchProblem implements SearchProblem<Integer, Integer> {
+    private final StateGraph graph;
+    private final int initialState;
+    private final boolean[] isGoal;
+
+    public StateGraphSearchProblem(StateGraph graph, int initialState, int[] goalStates) {
+        this.graph = graph;
+        this.initialState = initialState;
+        this.isGoal = new boolean[graph.getStateCount()];
+
+        for (int goal : goalStates) {
+            isGoal[goal] = true;
+        }
+    }
+
+    @Override
+    public Integer getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public boolean isGoal(Integer state) {
+        return isGoal[state];
+    }
+
+    @Override
+    public List<Successor<Integer, Integer>> getSuccessors(Integer state) {
+        List<Successor<Integer, Integer>> successors = Lists.newArrayListWithCapacity(graph.getLastEdge(state) - graph.getFirstEdge(state));
+
+        for (int edge = graph.getFirstEdge(state); edge < graph.getLastEdge(state); edge++) {
+            successors.add(new Successor<>(edge, graph.getEdgeTarget(edge)));
+        }
+
+        return successors;
+    }
+}
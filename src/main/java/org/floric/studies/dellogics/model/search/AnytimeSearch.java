@@ -0,0 +1,59 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+// weighted A* with decreasing weights, every iteration only looks for plans shorter than the best one so far
+public class AnytimeSearch<S, A> implements SearchEngine<S, A> {
+
+    private static final int[] DEFAULT_WEIGHTS = {5, 3, 2, 1};
+
+    private final Heuristic<S> heuristic;
+    private final int[] weights;
+
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    public AnytimeSearch(Heuristic<S> heuristic) {
+        this(heuristic, DEFAULT_WEIGHTS);
+    }
+
+    public AnytimeSearch(Heuristic<S> heuristic, int... weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("At least one weight is needed!");
+        }
+        this.heuristic = heuristic;
+        this.weights = weights;
+    }
+
+    @Override
+    public Optional<List<A>> search(SearchProblem<S, A> problem, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+        Optional<List<A>> bestPlan = Optional.empty();
+
+        try {
+            for (int weight : weights) {
+                int costBound = bestPlan.map(List::size).orElse(Integer.MAX_VALUE);
+                Optional<List<A>> plan = new BestFirstSearch<S, A>(heuristic, 1, weight).search(problem, monitor, statistics, costBound);
+
+                if (plan.isPresent()) {
+                    bestPlan = plan;
+                    monitor.setBestPlanLength(plan.get().size());
+                }
+
+                // a stopped search keeps the best plan found so far
+                if (monitor.isStopped()) {
+                    break;
+                }
+            }
+
+            statistics.setStatus(monitor.getStatus(bestPlan.isPresent()));
+            return bestPlan;
+        } finally {
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+}
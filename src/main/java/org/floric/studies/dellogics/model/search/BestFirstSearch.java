@@ -0,0 +1,134 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+
+public class BestFirstSearch<S, A> implements SearchEngine<S, A> {
+
+    private final Heuristic<S> heuristic;
+    private final int costWeight;
+    private final int heuristicWeight;
+
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    public BestFirstSearch(Heuristic<S> heuristic, int costWeight, int heuristicWeight) {
+        this.heuristic = heuristic;
+        this.costWeight = costWeight;
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    public static <S, A> BestFirstSearch<S, A> uniformCost() {
+        return new BestFirstSearch<>(Heuristic.blind(), 1, 0);
+    }
+
+    public static <S, A> BestFirstSearch<S, A> aStar(Heuristic<S> heuristic) {
+        return new BestFirstSearch<>(heuristic, 1, 1);
+    }
+
+    public static <S, A> BestFirstSearch<S, A> greedy(Heuristic<S> heuristic) {
+        return new BestFirstSearch<>(heuristic, 0, 1);
+    }
+
+    @Override
+    public Optional<List<A>> search(SearchProblem<S, A> problem, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+
+        try {
+            Optional<List<A>> plan = search(problem, monitor, statistics, Integer.MAX_VALUE);
+            statistics.setStatus(monitor.getStatus(plan.isPresent()));
+            return plan;
+        } finally {
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+
+    // only finds plans shorter than the cost bound, monitor and statistics can be shared by several searches
+    Optional<List<A>> search(SearchProblem<S, A> problem, SearchMonitor monitor, SearchStatistics statistics, int costBound) {
+        // costs are unit costs, so expanded states are final and the closed set is the only per state memory.
+        // a state may be in the open list several times, the later copies are dropped when they are polled
+        PriorityQueue<Entry<S, A>> open = new PriorityQueue<>();
+        ClosedSet<S> closed = problem.createClosedSet();
+        long insertions = 0;
+
+        S initialState = problem.getInitialState();
+        int initialEstimate = heuristic.estimate(initialState);
+        if (initialEstimate == Heuristic.DEAD_END) {
+            return Optional.empty();
+        }
+
+        open.add(createEntry(SearchNode.root(initialState), initialEstimate, insertions++));
+
+        while (!open.isEmpty()) {
+            if (monitor.shouldStop(statistics, open.size())) {
+                return Optional.empty();
+            }
+
+            SearchNode<S, A> node = open.poll().node;
+
+            // skip outdated entries of already expanded states
+            if (!closed.add(node.getState())) {
+                continue;
+            }
+
+            // goal test on expansion keeps the result optimal for uniform cost and A*
+            if (problem.isGoal(node.getState())) {
+                return Optional.of(node.extractPlan());
+            }
+
+            statistics.incrementExpandedNodes();
+
+            for (Successor<S, A> successor : problem.getSuccessors(node.getState())) {
+                S state = successor.getState();
+                int cost = node.getCost() + 1;
+                if (cost >= costBound) {
+                    continue;
+                }
+
+                if (closed.contains(state)) {
+                    statistics.incrementDuplicateNodes();
+                    continue;
+                }
+
+                int estimate = heuristic.estimate(state);
+                if (estimate == Heuristic.DEAD_END) {
+                    continue;
+                }
+
+                statistics.incrementGeneratedNodes();
+                open.add(createEntry(node.createChild(successor.getAction(), state), estimate, insertions++));
+            }
+            statistics.updatePeakOpenNodes(open.size());
+        }
+
+        return Optional.empty();
+    }
+
+    private Entry<S, A> createEntry(SearchNode<S, A> node, int estimate, long order) {
+        return new Entry<>(node, costWeight * node.getCost() + heuristicWeight * estimate, estimate, order);
+    }
+
+    @AllArgsConstructor
+    private static class Entry<S, A> implements Comparable<Entry<S, A>> {
+        private final SearchNode<S, A> node;
+        private final int priority;
+        private final int estimate;
+        private final long order;
+
+        @Override
+        public int compareTo(Entry<S, A> other) {
+            // prefer lower priority, then nodes closer to the goal, then older nodes
+            int result = Integer.compare(priority, other.priority);
+            if (result == 0) {
+                result = Integer.compare(estimate, other.estimate);
+            }
+            if (result == 0) {
+                result = Long.compare(order, other.order);
+            }
+            return result;
+        }
+    }
+}
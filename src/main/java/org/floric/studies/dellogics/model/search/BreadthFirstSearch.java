@@ -0,0 +1,71 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Queues;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+
+public class BreadthFirstSearch<S, A> implements SearchEngine<S, A> {
+
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    @Override
+    public Optional<List<A>> search(SearchProblem<S, A> problem, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+
+        try {
+            Optional<List<A>> plan = doSearch(problem, monitor);
+            statistics.setStatus(monitor.getStatus(plan.isPresent()));
+            return plan;
+        } finally {
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+
+    private Optional<List<A>> doSearch(SearchProblem<S, A> problem, SearchMonitor monitor) {
+        SearchNode<S, A> root = SearchNode.root(problem.getInitialState());
+        if (problem.isGoal(root.getState())) {
+            return Optional.of(root.extractPlan());
+        }
+
+        Queue<SearchNode<S, A>> open = Queues.newArrayDeque();
+        ClosedSet<S> closed = problem.createClosedSet();
+        open.add(root);
+        closed.add(root.getState());
+        statistics.updatePeakOpenNodes(open.size());
+
+        while (!open.isEmpty()) {
+            if (monitor.shouldStop(statistics, open.size())) {
+                return Optional.empty();
+            }
+
+            SearchNode<S, A> node = open.poll();
+            statistics.incrementExpandedNodes();
+
+            for (Successor<S, A> successor : problem.getSuccessors(node.getState())) {
+                // every state is only reached once, the first time is always on a shortest path
+                if (!closed.add(successor.getState())) {
+                    statistics.incrementDuplicateNodes();
+                    continue;
+                }
+
+                SearchNode<S, A> child = node.createChild(successor.getAction(), successor.getState());
+                statistics.incrementGeneratedNodes();
+
+                // with unit costs the first generated goal is already optimal
+                if (problem.isGoal(child.getState())) {
+                    return Optional.of(child.extractPlan());
+                }
+
+                open.add(child);
+            }
+            statistics.updatePeakOpenNodes(open.size());
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,14 @@
+package org.floric.studies.dellogics.model.search;
+
+// cooperative cancellation, the search stops at its next check after cancel() was called from any thread
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
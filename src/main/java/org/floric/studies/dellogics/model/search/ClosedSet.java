@@ -0,0 +1,36 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Sets;
+
+import java.util.Set;
+
+// states which were already reached, problems with a compact state encoding can bring their own
+public interface ClosedSet<S> {
+    // false if the state was already part of the set
+    boolean add(S state);
+
+    boolean contains(S state);
+
+    int size();
+
+    static <S> ClosedSet<S> hashed() {
+        Set<S> states = Sets.newHashSet();
+
+        return new ClosedSet<S>() {
+            @Override
+            public boolean add(S state) {
+                return states.add(state);
+            }
+
+            @Override
+            public boolean contains(S state) {
+                return states.contains(state);
+            }
+
+            @Override
+            public int size() {
+                return states.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package org.floric.studies.dellogics.model.search;
+
+@FunctionalInterface
+public interface Heuristic<S> {
+    int DEAD_END = Integer.MAX_VALUE;
+
+    int estimate(S state);
+
+    static <S> Heuristic<S> blind() {
+        return state -> 0;
+    }
+}
@@ -0,0 +1,157 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import lombok.AllArgsConstructor;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// lazy enumeration of acyclic plans in nondecreasing length (Yen's algorithm), every plan ends at the first goal it reaches.
+// each next plan is searched on demand from deviations of the previous one, only the returned plans and their
+// candidate deviations are kept
+public class KShortestPlans<S, A> implements Iterator<List<A>> {
+
+    private final SearchProblem<S, A> problem;
+    private final List<Path<S, A>> foundPaths = Lists.newArrayList();
+    private final PriorityQueue<Path<S, A>> candidates = new PriorityQueue<>();
+    private final Set<List<A>> knownPlans = Sets.newHashSet();
+    private Path<S, A> nextPath;
+    private boolean isExhausted;
+    private long insertions;
+
+    public KShortestPlans(SearchProblem<S, A> problem) {
+        this.problem = problem;
+    }
+
+    public static <S, A> Stream<List<A>> stream(SearchProblem<S, A> problem) {
+        Spliterator<List<A>> spliterator = Spliterators.spliteratorUnknownSize(new KShortestPlans<>(problem), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPath == null && !isExhausted) {
+            nextPath = findNextPath();
+            isExhausted = nextPath == null;
+        }
+
+        return nextPath != null;
+    }
+
+    @Override
+    public List<A> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Path<S, A> path = nextPath;
+        nextPath = null;
+        foundPaths.add(path);
+
+        return Collections.unmodifiableList(path.actions);
+    }
+
+    private Path<S, A> findNextPath() {
+        if (foundPaths.isEmpty()) {
+            Path<S, A> path = findShortestPath(problem.getInitialState(), Collections.emptySet(), Collections.emptySet()).orElse(null);
+            if (path != null) {
+                knownPlans.add(path.actions);
+            }
+            return path;
+        }
+
+        Path<S, A> lastPath = foundPaths.get(foundPaths.size() - 1);
+
+        // deviate from the last plan at every position
+        for (int i = 0; i < lastPath.actions.size(); i++) {
+            List<A> rootActions = lastPath.actions.subList(0, i);
+
+            // plans with the same prefix may not continue with an already used action
+            Set<A> blockedActions = Sets.newHashSet();
+            for (Path<S, A> path : foundPaths) {
+                if (path.actions.size() > i && path.actions.subList(0, i).equals(rootActions)) {
+                    blockedActions.add(path.actions.get(i));
+                }
+            }
+
+            // the deviation may not visit the states of the prefix again
+            Set<S> blockedStates = Sets.newHashSet(lastPath.states.subList(0, i));
+
+            Optional<Path<S, A>> spurPath = findShortestPath(lastPath.states.get(i), blockedStates, blockedActions);
+            if (spurPath.isPresent()) {
+                List<S> states = Lists.newArrayList(lastPath.states.subList(0, i));
+                states.addAll(spurPath.get().states);
+                List<A> actions = Lists.newArrayList(rootActions);
+                actions.addAll(spurPath.get().actions);
+
+                if (knownPlans.add(actions)) {
+                    candidates.add(new Path<>(states, actions, insertions++));
+                }
+            }
+        }
+
+        return candidates.poll();
+    }
+
+    private Optional<Path<S, A>> findShortestPath(S start, Set<S> blockedStates, Set<A> blockedActions) {
+        SearchNode<S, A> root = SearchNode.root(start);
+        if (problem.isGoal(start)) {
+            return Optional.of(createPath(root));
+        }
+
+        Queue<SearchNode<S, A>> open = Queues.newArrayDeque();
+        Set<S> closed = Sets.newHashSet(blockedStates);
+        open.add(root);
+        closed.add(start);
+
+        while (!open.isEmpty()) {
+            SearchNode<S, A> node = open.poll();
+
+            for (Successor<S, A> successor : problem.getSuccessors(node.getState())) {
+                if (node == root && blockedActions.contains(successor.getAction())) {
+                    continue;
+                }
+                if (!closed.add(successor.getState())) {
+                    continue;
+                }
+
+                SearchNode<S, A> child = node.createChild(successor.getAction(), successor.getState());
+                if (problem.isGoal(child.getState())) {
+                    return Optional.of(createPath(child));
+                }
+                open.add(child);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Path<S, A> createPath(SearchNode<S, A> node) {
+        List<S> states = Lists.newArrayListWithCapacity(node.getCost() + 1);
+        for (SearchNode<S, A> current = node; current != null; current = current.getParent()) {
+            states.add(current.getState());
+        }
+
+        return new Path<>(Lists.newArrayList(Lists.reverse(states)), Lists.newArrayList(node.extractPlan()), 0);
+    }
+
+    @AllArgsConstructor
+    private static class Path<S, A> implements Comparable<Path<S, A>> {
+        private final List<S> states;
+        private final List<A> actions;
+        private final long order;
+
+        @Override
+        public int compareTo(Path<S, A> other) {
+            // shorter plans first, then the older candidate
+            int result = Integer.compare(actions.size(), other.actions.size());
+            if (result == 0) {
+                result = Long.compare(order, other.order);
+            }
+            return result;
+        }
+    }
+}
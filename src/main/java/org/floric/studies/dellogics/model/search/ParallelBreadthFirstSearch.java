@@ -0,0 +1,186 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// level synchronous breadth first search, every worker owns the states whose hash maps to it
+public class ParallelBreadthFirstSearch<S, A> implements SearchEngine<S, A> {
+
+    private final int workerCount;
+
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    public ParallelBreadthFirstSearch(int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("At least one worker is needed!");
+        }
+        this.workerCount = workerCount;
+    }
+
+    @Override
+    public Optional<List<A>> search(SearchProblem<S, A> problem, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+
+        try {
+            Optional<List<A>> plan = doSearch(problem, monitor, executor);
+            statistics.setStatus(monitor.getStatus(plan.isPresent()));
+            return plan;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            statistics.setStatus(SearchStatus.CANCELLED);
+            return Optional.empty();
+        } finally {
+            executor.shutdownNow();
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+
+    private Optional<List<A>> doSearch(SearchProblem<S, A> problem, SearchMonitor monitor, ExecutorService executor) throws InterruptedException {
+        SearchNode<S, A> root = SearchNode.root(problem.getInitialState());
+        if (problem.isGoal(root.getState())) {
+            return Optional.of(root.extractPlan());
+        }
+
+        List<Worker> workers = Lists.newArrayListWithCapacity(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(i, problem, workers));
+        }
+
+        Worker rootOwner = workers.get(getOwner(root.getState()));
+        rootOwner.closed.add(root.getState());
+        rootOwner.frontier.add(root);
+
+        try {
+            while (workers.stream().anyMatch(worker -> !worker.frontier.isEmpty())) {
+                // limits are checked once per level with the counts of all workers
+                collectStatistics(workers);
+                long openNodes = workers.stream().mapToLong(worker -> worker.frontier.size()).sum();
+                statistics.updatePeakOpenNodes(openNodes);
+                if (monitor.shouldStopNow(statistics, openNodes)) {
+                    return Optional.empty();
+                }
+
+                // expand the own frontier and route the children to the workers owning them
+                invokeAll(executor, workers, Worker::expand);
+                // duplicate detection only touches the own partition of the closed set, no locking needed
+                invokeAll(executor, workers, Worker::collect);
+
+                for (Worker worker : workers) {
+                    if (worker.goal != null) {
+                        return Optional.of(worker.goal.extractPlan());
+                    }
+                }
+            }
+
+            return Optional.empty();
+        } finally {
+            collectStatistics(workers);
+        }
+    }
+
+    private void invokeAll(ExecutorService executor, List<Worker> workers, Consumer<Worker> task) throws InterruptedException {
+        List<Callable<Void>> calls = Lists.newArrayListWithCapacity(workers.size());
+        for (Worker worker : workers) {
+            calls.add(() -> {
+                task.accept(worker);
+                return null;
+            });
+        }
+
+        for (Future<Void> future : executor.invokeAll(calls)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search worker failed!", e.getCause());
+            }
+        }
+    }
+
+    private void collectStatistics(List<Worker> workers) {
+        long[] workerExpandedNodes = new long[workers.size()];
+        statistics.setExpandedNodes(0);
+        statistics.setGeneratedNodes(0);
+        statistics.setDuplicateNodes(0);
+
+        for (Worker worker : workers) {
+            workerExpandedNodes[worker.index] = worker.expandedNodes;
+            statistics.setExpandedNodes(statistics.getExpandedNodes() + worker.expandedNodes);
+            statistics.setGeneratedNodes(statistics.getGeneratedNodes() + worker.generatedNodes);
+            statistics.setDuplicateNodes(statistics.getDuplicateNodes() + worker.duplicateNodes);
+        }
+
+        statistics.setWorkerExpandedNodes(workerExpandedNodes);
+    }
+
+    private int getOwner(S state) {
+        // spread the hash bits before reducing to a worker index
+        int hash = state.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), workerCount);
+    }
+
+    private class Worker {
+        private final int index;
+        private final SearchProblem<S, A> problem;
+        private final List<Worker> workers;
+
+        private final ClosedSet<S> closed;
+        private List<SearchNode<S, A>> frontier = Lists.newArrayList();
+        // children generated by this worker, grouped by the index of their owner
+        private final List<List<SearchNode<S, A>>> outbox = Lists.newArrayList();
+        private SearchNode<S, A> goal;
+        private long expandedNodes;
+        private long generatedNodes;
+        private long duplicateNodes;
+
+        Worker(int index, SearchProblem<S, A> problem, List<Worker> workers) {
+            this.index = index;
+            this.problem = problem;
+            this.workers = workers;
+            this.closed = problem.createClosedSet();
+        }
+
+        void expand() {
+            outbox.clear();
+            for (int i = 0; i < workerCount; i++) {
+                outbox.add(Lists.newArrayList());
+            }
+
+            for (SearchNode<S, A> node : frontier) {
+                expandedNodes++;
+
+                for (Successor<S, A> successor : problem.getSuccessors(node.getState())) {
+                    outbox.get(getOwner(successor.getState())).add(node.createChild(successor.getAction(), successor.getState()));
+                }
+            }
+        }
+
+        void collect() {
+            List<SearchNode<S, A>> newFrontier = Lists.newArrayList();
+
+            for (Worker sender : workers) {
+                for (SearchNode<S, A> child : sender.outbox.get(index)) {
+                    if (!closed.add(child.getState())) {
+                        duplicateNodes++;
+                        continue;
+                    }
+
+                    generatedNodes++;
+                    if (goal == null && problem.isGoal(child.getState())) {
+                        goal = child;
+                    }
+                    newFrontier.add(child);
+                }
+            }
+
+            frontier = newFrontier;
+        }
+    }
+}
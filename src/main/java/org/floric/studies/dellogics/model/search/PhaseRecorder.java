@@ -0,0 +1,34 @@
+package org.floric.studies.dellogics.model.search;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// times the phases of one solver call and reports them to the listener
+public class PhaseRecorder {
+    private final SearchListener listener;
+    private final Map<SearchPhase, Long> phaseNanos = new EnumMap<>(SearchPhase.class);
+
+    public PhaseRecorder(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public <T> T record(SearchPhase phase, Supplier<T> action) {
+        listener.onPhaseStarted(phase);
+        long startTime = System.nanoTime();
+
+        try {
+            return action.get();
+        } finally {
+            long nanos = System.nanoTime() - startTime;
+            phaseNanos.merge(phase, nanos, Long::sum);
+            listener.onPhaseFinished(phase, nanos);
+        }
+    }
+
+    // statistics are usually created by the engine, so the phases are added once it is done
+    public void finish(SearchStatistics statistics) {
+        phaseNanos.forEach(statistics::addPhaseNanos);
+        listener.onSearchFinished(statistics);
+    }
+}
@@ -0,0 +1,30 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.function.Consumer;
+
+@Getter
+@Setter
+public class SearchControl {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private long timeBudgetMillis = UNLIMITED;
+    // maximum number of expanded nodes
+    private long nodeBudget = UNLIMITED;
+    // maximum used heap of the whole vm, not only of the search
+    private long memoryBudgetBytes = UNLIMITED;
+    private CancellationToken cancellationToken = new CancellationToken();
+    private Consumer<SearchProgress> progressListener;
+    private long progressIntervalMillis = 1000;
+    private SearchListener listener = SearchListener.NONE;
+
+    public static SearchControl unlimited() {
+        return new SearchControl();
+    }
+
+    public SearchMonitor start() {
+        return new SearchMonitor(this);
+    }
+}
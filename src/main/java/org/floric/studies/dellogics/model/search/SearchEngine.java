@@ -0,0 +1,14 @@
+package org.floric.studies.dellogics.model.search;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SearchEngine<S, A> {
+    default Optional<List<A>> search(SearchProblem<S, A> problem) {
+        return search(problem, SearchControl.unlimited());
+    }
+
+    Optional<List<A>> search(SearchProblem<S, A> problem, SearchControl control);
+
+    SearchStatistics getStatistics();
+}
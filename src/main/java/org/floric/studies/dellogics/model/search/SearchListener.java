@@ -0,0 +1,16 @@
+package org.floric.studies.dellogics.model.search;
+
+// receives the phases and the final statistics of a search, calls happen on the thread running the solver
+public interface SearchListener {
+    SearchListener NONE = new SearchListener() {
+    };
+
+    default void onPhaseStarted(SearchPhase phase) {
+    }
+
+    default void onPhaseFinished(SearchPhase phase, long nanos) {
+    }
+
+    default void onSearchFinished(SearchStatistics statistics) {
+    }
+}
@@ -0,0 +1,92 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+// checks the limits of a search control while one search is running
+public class SearchMonitor {
+    // clock, memory and progress are only looked at every few calls
+    private static final int CHECK_INTERVAL = 64;
+
+    private final SearchControl control;
+    private final long startTime = System.nanoTime();
+    private long nextProgressTime;
+    private int callsUntilCheck = CHECK_INTERVAL;
+
+    @Getter
+    private SearchStatus stopReason;
+
+    @Setter
+    private int bestPlanLength = SearchProgress.NO_PLAN;
+
+    SearchMonitor(SearchControl control) {
+        this.control = control;
+        this.nextProgressTime = control.getProgressIntervalMillis();
+    }
+
+    public boolean shouldStop(SearchStatistics statistics, long openNodes) {
+        if (stopReason != null) {
+            return true;
+        }
+
+        if (control.getCancellationToken().isCancelled()) {
+            stopReason = SearchStatus.CANCELLED;
+        } else if (statistics.getExpandedNodes() >= control.getNodeBudget()) {
+            stopReason = SearchStatus.NODE_LIMIT;
+        } else if (--callsUntilCheck <= 0) {
+            callsUntilCheck = CHECK_INTERVAL;
+            checkClockAndMemory(statistics, openNodes);
+        }
+
+        return stopReason != null;
+    }
+
+    // for callers that only check rarely, e.g. once per level
+    public boolean shouldStopNow(SearchStatistics statistics, long openNodes) {
+        callsUntilCheck = 1;
+        return shouldStop(statistics, openNodes);
+    }
+
+    public boolean isStopped() {
+        return stopReason != null;
+    }
+
+    public SearchStatus getStatus(boolean isSolved) {
+        if (stopReason != null) {
+            return stopReason;
+        }
+        return isSolved ? SearchStatus.SOLVED : SearchStatus.UNSOLVABLE;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    private void checkClockAndMemory(SearchStatistics statistics, long openNodes) {
+        long elapsedMillis = getElapsedMillis();
+
+        if (elapsedMillis >= control.getTimeBudgetMillis()) {
+            stopReason = SearchStatus.TIME_LIMIT;
+        } else if (control.getMemoryBudgetBytes() != SearchControl.UNLIMITED && getUsedMemory() >= control.getMemoryBudgetBytes()) {
+            stopReason = SearchStatus.MEMORY_LIMIT;
+        }
+
+        if (control.getProgressListener() != null && elapsedMillis >= nextProgressTime) {
+            nextProgressTime = elapsedMillis + control.getProgressIntervalMillis();
+            control.getProgressListener().accept(new SearchProgress(
+                    statistics.getExpandedNodes(),
+                    statistics.getGeneratedNodes(),
+                    openNodes,
+                    elapsedMillis,
+                    bestPlanLength
+            ));
+        }
+    }
+
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,35 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Lists;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SearchNode<S, A> {
+    private final S state;
+    private final SearchNode<S, A> parent;
+    private final A action;
+    private final int cost;
+
+    public static <S, A> SearchNode<S, A> root(S state) {
+        return new SearchNode<>(state, null, null, 0);
+    }
+
+    public SearchNode<S, A> createChild(A action, S state) {
+        return new SearchNode<>(state, this, action, cost + 1);
+    }
+
+    public List<A> extractPlan() {
+        List<A> plan = Lists.newArrayListWithCapacity(cost);
+
+        // walk back to the root and collect the used actions
+        for (SearchNode<S, A> node = this; node.parent != null; node = node.parent) {
+            plan.add(node.action);
+        }
+
+        return Lists.reverse(plan);
+    }
+}
@@ -0,0 +1,10 @@
+package org.floric.studies.dellogics.model.search;
+
+public enum SearchPhase {
+    // turning the task into the searched representation, e.g. grounding or compiling a state graph
+    GROUNDING,
+    SEARCH,
+    // only measured while a listener is set, they are part of the search phase
+    APPLICABILITY,
+    APPLICATION
+}
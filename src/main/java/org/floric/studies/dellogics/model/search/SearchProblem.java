@@ -0,0 +1,13 @@
+package org.floric.studies.dellogics.model.search;
+
+import java.util.List;
+
+public interface SearchProblem<S, A> {
+    S getInitialState();
+    boolean isGoal(S state);
+    List<Successor<S, A>> getSuccessors(S state);
+
+    default ClosedSet<S> createClosedSet() {
+        return ClosedSet.hashed();
+    }
+}
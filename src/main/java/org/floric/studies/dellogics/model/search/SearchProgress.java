@@ -0,0 +1,16 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SearchProgress {
+    public static final int NO_PLAN = -1;
+
+    private long expandedNodes;
+    private long generatedNodes;
+    private long openNodes;
+    private long elapsedMillis;
+    private int bestPlanLength;
+}
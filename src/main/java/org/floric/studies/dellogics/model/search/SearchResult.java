@@ -0,0 +1,21 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SearchResult<A> {
+    private final List<A> plan;
+    @Getter
+    private final SearchStatistics statistics;
+
+    public SearchResult(Optional<List<A>> plan, SearchStatistics statistics) {
+        this.plan = plan.orElse(null);
+        this.statistics = statistics;
+    }
+
+    public Optional<List<A>> getPlan() {
+        return Optional.ofNullable(plan);
+    }
+}
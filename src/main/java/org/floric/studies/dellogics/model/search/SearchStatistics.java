@@ -0,0 +1,56 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+public class SearchStatistics {
+    private long expandedNodes;
+    private long generatedNodes;
+    // successors dropped because their state was already reached at least as cheap
+    private long duplicateNodes;
+    private long peakOpenNodes;
+    // applicable actions of all expansions and the ones left out by pruning, only set by pruning problems
+    private long applicableActions;
+    private long prunedActions;
+    private long elapsedMillis;
+    private SearchStatus status;
+    // only filled by parallel engines, one entry per worker
+    private long[] workerExpandedNodes = new long[0];
+    private Map<SearchPhase, Long> phaseNanos = new EnumMap<>(SearchPhase.class);
+
+    public void incrementExpandedNodes() {
+        expandedNodes++;
+    }
+
+    public void incrementGeneratedNodes() {
+        generatedNodes++;
+    }
+
+    public void incrementDuplicateNodes() {
+        duplicateNodes++;
+    }
+
+    public void updatePeakOpenNodes(long openNodes) {
+        peakOpenNodes = Math.max(peakOpenNodes, openNodes);
+    }
+
+    public void addPhaseNanos(SearchPhase phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    public long getPhaseNanos(SearchPhase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public double getPruningRatio() {
+        return applicableActions == 0 ? 0 : (double) prunedActions / applicableActions;
+    }
+
+    // successors per expanded node, duplicates included
+    public double getBranchingFactor() {
+        return expandedNodes == 0 ? 0 : (double) (generatedNodes + duplicateNodes) / expandedNodes;
+    }
+}
@@ -0,0 +1,13 @@
+package org.floric.studies.dellogics.model.search;
+
+public enum SearchStatus {
+    SOLVED,
+    UNSOLVABLE,
+    // the search was stopped, a returned plan is the best one found so far
+    TIME_LIMIT,
+    NODE_LIMIT,
+    MEMORY_LIMIT,
+    CANCELLED,
+    // bounded planners gave up at their longest plan, a longer one may still exist
+    HORIZON_LIMIT
+}
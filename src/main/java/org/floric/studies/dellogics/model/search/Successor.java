@@ -0,0 +1,11 @@
+package org.floric.studies.dellogics.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class Successor<S, A> {
+    private A action;
+    private S state;
+}
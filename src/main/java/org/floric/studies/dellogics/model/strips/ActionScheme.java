@@ -1,56 +1,92 @@
 package org.floric.studies.dellogics.model.strips;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.floric.studies.dellogics.model.strips.exceptions.InvalidPredicateException;
-import org.floric.studies.dellogics.model.strips.exceptions.InvalidPredicateSymbolsException;
 import org.floric.studies.dellogics.model.strips.exceptions.NoNegPredicatesAllowedException;
+import org.floric.studies.dellogics.model.strips.grounding.AtomTable;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
+import java.util.Set;
 
 @Data
-@AllArgsConstructor
+@EqualsAndHashCode(exclude = "compiledScheme")
+@ToString(exclude = "compiledScheme")
 public class ActionScheme {
     private Predicate predicate;
     private Set<Predicate> preConditions;
     private Set<Predicate> effects;
 
-    public Set<InstancedPredicate> apply(List<Symbol> symbols, Set<InstancedPredicate> state) {
-        // check preconditions
-        if (!canApply(symbols, state)) {
-            throw new RuntimeException("Preconditions are not met. Can't be applied!");
-        }
+    // checked and compiled on first use, the setters throw it away again
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CompiledActionScheme compiledScheme;
+
+    public ActionScheme(Predicate predicate, Set<Predicate> preConditions, Set<Predicate> effects) {
+        this.predicate = predicate;
+        this.preConditions = preConditions;
+        this.effects = effects;
+    }
+
+    public void setPredicate(Predicate predicate) {
+        this.predicate = predicate;
+        this.compiledScheme = null;
+    }
 
-        // do additional tests to avoid human errors during modelling
-        checkConditions(preConditions, predicate.getVariables());
-        checkConditions(effects, predicate.getVariables());
+    public void setPreConditions(Set<Predicate> preConditions) {
+        this.preConditions = preConditions;
+        this.compiledScheme = null;
+    }
+
+    public void setEffects(Set<Predicate> effects) {
+        this.effects = effects;
+        this.compiledScheme = null;
+    }
+
+    public CompiledActionScheme compile() {
+        // do all tests to avoid human errors during modelling once
         checkVariableCountOfPredicate();
-        checkSymbolsCountMatchingPredicate(symbols);
-        checkAllInstancePredicatesArePositive(state);
+        checkUniqueVariableNames();
+        checkConditions(preConditions);
+        checkConditions(effects);
 
-        // collect all untouched predicate instances for output
-        Set<InstancedPredicate> untouchedPredicateInstances = getUntouchedPredicates(state, effects, symbols);
+        List<CompiledPredicate> compiledPreConditions = Lists.newArrayList();
+        preConditions.forEach(condition -> compiledPreConditions.add(compilePredicate(condition)));
 
-        // modify matching predicate instances based on type and symbols
-        Set<InstancedPredicate> newAndModifiedPredicateInstances = modifyOrCreateMatchingInstancedPredicates(symbols, state, effects);
+        List<CompiledPredicate> addEffects = Lists.newArrayList();
+        List<CompiledPredicate> deleteEffects = Lists.newArrayList();
+        effects.forEach(effect -> (effect.isState() ? addEffects : deleteEffects).add(compilePredicate(effect)));
 
-        // remove negative states as all nonexisting states are negative
-        newAndModifiedPredicateInstances = newAndModifiedPredicateInstances.stream()
-                .filter(instancedPredicate -> instancedPredicate.isState())
-                .collect(Collectors.toSet());
+        return new CompiledActionScheme(this, compiledPreConditions, addEffects, deleteEffects);
+    }
 
-        // combine combine to set and return
-        return Sets.union(untouchedPredicateInstances, newAndModifiedPredicateInstances);
+    // validated once, later calls only use the compiled form
+    public CompiledActionScheme getCompiledScheme() {
+        if (compiledScheme == null) {
+            compiledScheme = compile();
+        }
+        return compiledScheme;
     }
 
-    private void checkAllInstancePredicatesArePositive(Set<InstancedPredicate> state) {
-        long negativePredicatesCount = state.stream().filter(instancedPredicate -> !instancedPredicate.isState()).count();
-        if (negativePredicatesCount > 0) {
-            throw new NoNegPredicatesAllowedException();
+    public Set<InstancedPredicate> apply(List<Symbol> symbols, Set<InstancedPredicate> state) {
+        checkSymbolsCountMatchingPredicate(symbols);
+        CompiledActionScheme compiledScheme = getCompiledScheme();
+
+        // check preconditions
+        if (!compiledScheme.canApply(symbols, state)) {
+            throw new RuntimeException("Preconditions are not met. Can't be applied!");
         }
+
+        checkAllInstancePredicatesArePositive(state);
+
+        return compiledScheme.apply(symbols, state);
     }
 
     public boolean canApply(List<Symbol> symbols, Set<InstancedPredicate> state) {
@@ -58,47 +94,45 @@ public class ActionScheme {
 
         // go through all preconditions with these symbols assigned to variables and check if allowed
         // allow if no preconditions exist at all
-        return preConditions.stream()
-                .map(cond -> isConditionValid(state, cond, symbols))
-                .reduce((a, b) -> a && b)
-                .orElse(true);
+        return getCompiledScheme().canApply(symbols, state);
     }
 
-    private Set<InstancedPredicate> modifyOrCreateMatchingInstancedPredicates(List<Symbol> symbols, Set<InstancedPredicate> state, Set<Predicate> effects) {
-        return effects.stream()
-                .map(effect -> getInstancePredicateForEffect(symbols, state, effect))
-                .collect(Collectors.toSet());
+    public boolean canApply(List<Symbol> symbols, PackedState state, AtomTable atoms) {
+        checkSymbolsCountMatchingPredicate(symbols);
+
+        return getCompiledScheme().canApply(symbols, state, atoms);
     }
 
-    private InstancedPredicate getInstancePredicateForEffect(List<Symbol> symbols, Set<InstancedPredicate> state, Predicate effect) {
-        Optional<InstancedPredicate> matchingStatePredicateFromCondition = getMatchingStatePredicateFromCondition(state, effect, symbols);
+    public PackedState apply(List<Symbol> symbols, PackedState state, AtomTable atoms) {
+        checkSymbolsCountMatchingPredicate(symbols);
+        CompiledActionScheme compiledScheme = getCompiledScheme();
 
-        if(matchingStatePredicateFromCondition.isPresent()) {
-            InstancedPredicate matchingInstance = matchingStatePredicateFromCondition.get();
-            matchingInstance.setState(effect.isState());
-            return matchingInstance;
-        } else {
-            Map<String, Symbol> symbolMappings = mapSymbolsToVariables(symbols);
-            return new InstancedPredicate(effect.getType(), effect.isState(), mapVariablesToSymbol(effect.getVariables(), symbolMappings));
+        if (!compiledScheme.canApply(symbols, state, atoms)) {
+            throw new RuntimeException("Preconditions are not met. Can't be applied!");
         }
+
+        return compiledScheme.apply(symbols, state, atoms);
     }
 
-    private Map<String, Symbol> mapSymbolsToVariables(List<Symbol> symbols, List<String> variableNames) {
-        if (symbols.size() != variableNames.size()) {
-            throw new InvalidPredicateSymbolsException("Number of symbols doesn't match signature");
-        }
+    private CompiledPredicate compilePredicate(Predicate condition) {
+        List<String> variableNames = predicate.getVariables();
+        int[] variableIndices = condition.getVariables().stream()
+                .mapToInt(variableNames::indexOf)
+                .toArray();
 
-        return IntStream.range(0, symbols.size())
-                .mapToObj(a -> (a))
-                .collect(Collectors.toMap(index -> predicate.getVariables().get(index), symbols::get));
+        return new CompiledPredicate(condition.getType(), condition.isState(), variableIndices);
     }
 
-    private Map<String, Symbol> mapSymbolsToVariables(List<Symbol> symbols) {
-        return mapSymbolsToVariables(symbols, predicate.getVariables());
-    }
+    private void checkAllInstancePredicatesArePositive(Set<InstancedPredicate> state) {
+        // indexed states can't contain negative instances at all
+        if (state instanceof IndexedState) {
+            return;
+        }
 
-    private List<Symbol> mapVariablesToSymbol(List<String> variables, Map<String, Symbol> mappedSymbols) {
-        return variables.stream().map(mappedSymbols::get).collect(Collectors.toList());
+        long negativePredicatesCount = state.stream().filter(instancedPredicate -> !instancedPredicate.isState()).count();
+        if (negativePredicatesCount > 0) {
+            throw new NoNegPredicatesAllowedException();
+        }
     }
 
     private void checkSymbolsCountMatchingPredicate(List<Symbol> symbols) {
@@ -115,68 +149,20 @@ public class ActionScheme {
         }
     }
 
-    private boolean checkParameterNames(Predicate predicate, List<String> variableNames) {
-        return predicate.getVariables().stream()
-                .map(variableNames::contains)
-                .reduce((a, b) -> a && b)
-                .orElse(false);
-    }
-
-    private boolean isConditionValid(Set<InstancedPredicate> state, Predicate condition, List<Symbol> symbols) {
-        boolean foundMatchingPredicate = getMatchingStatePredicateFromCondition(state, condition, symbols).isPresent();
-
-        // for negative conditions no condition should be found, otherwise the opposite
-        return condition.isState() == foundMatchingPredicate;
-    }
-
-    private Set<InstancedPredicate> getUntouchedPredicates(Set<InstancedPredicate> state, Set<Predicate> effects, List<Symbol> symbols) {
-        return state.stream()
-                .filter(instance -> !getMatchingPredicateFromState(instance, effects, symbols).isPresent())
-                .collect(Collectors.toSet());
-    }
-
-    private Optional<Predicate> getMatchingPredicateFromState(InstancedPredicate predicateInstance, Set<Predicate> predicates, List<Symbol> symbols) {
-        Map<String, Symbol> mappedSymbols = mapSymbolsToVariables(symbols);
-
-        List<Predicate> matchedPredicates = predicates.stream()
-                .filter(predicate -> predicate.getType().equals(predicateInstance.getType()))
-                .filter(predicate -> mapVariablesToSymbol(predicate.getVariables(), mappedSymbols).equals(predicateInstance.getSymbols()))
-                .filter(predicate -> predicate.isState() != predicateInstance.isState())
-                .collect(Collectors.toList());
-
-        // maximum one predicate can match!
-        if (matchedPredicates.size() > 1) {
-            throw new RuntimeException("Multiple predicates with same signature found!");
-        } else if (matchedPredicates.isEmpty()) {
-            return Optional.empty();
+    private void checkUniqueVariableNames() {
+        boolean isUnique = Sets.newHashSet(predicate.getVariables()).size() == predicate.getVariables().size();
+        if (!isUnique) {
+            throw new InvalidPredicateException(String.format("Signature of %s contains duplicate variables!", predicate.getType().getName()));
         }
-
-        return Optional.of(matchedPredicates.get(0));
     }
 
-    private Optional<InstancedPredicate> getMatchingStatePredicateFromCondition(Set<InstancedPredicate> state, Predicate condition, List<Symbol> symbols) {
-        Map<String, Symbol> mappedSymbols = mapSymbolsToVariables(symbols);
-
-        // get all matching predicates with same type, symbols and conditions state
-        List<InstancedPredicate> matchedPredicates = state.stream()
-                .filter(predicate -> predicate.getType().equals(condition.getType()))
-                .filter(predicate -> predicate.getSymbols().equals(mapVariablesToSymbol(condition.getVariables(), mappedSymbols)))
-                .filter(predicate -> predicate.isState() == condition.isState())
-                .collect(Collectors.toList());
-
-        // maximum one predicate can match!
-        if (matchedPredicates.size() > 1) {
-            throw new RuntimeException("Multiple predicates with same signature found!");
-        } else if (matchedPredicates.isEmpty()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(matchedPredicates.get(0));
+    private boolean checkParameterNames(Predicate predicate, List<String> variableNames) {
+        return predicate.getVariables().stream().allMatch(variableNames::contains);
     }
 
-    private void checkConditions(Set<Predicate> conditions, List<String> variableNames) {
+    private void checkConditions(Set<Predicate> conditions) {
         conditions.forEach(con -> {
-            boolean isValid = checkParameterNames(con, variableNames);
+            boolean isValid = checkParameterNames(con, predicate.getVariables());
 
             if (!isValid) {
                 throw new InvalidPredicateException(String.format("Condition %s in %s has invalid types!", con.getType().getName(), predicate.getType().getName()));
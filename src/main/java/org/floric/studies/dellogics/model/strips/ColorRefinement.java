@@ -0,0 +1,70 @@
+package org.floric.studies.dellogics.model.strips;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// colors symbols by the labelled facts they appear in, refined until the number of colors is stable.
+// symbols with different colors can never be swapped, symbols with equal colors are only candidates
+public class ColorRefinement {
+
+    public static Map<Symbol, Integer> refine(Map<String, Set<InstancedPredicate>> parts, Collection<Symbol> symbols) {
+        Map<Symbol, List<Fact>> occurrences = Maps.newHashMap();
+        symbols.forEach(symbol -> occurrences.put(symbol, Lists.newArrayList()));
+        parts.forEach((part, facts) -> addFacts(part, facts, occurrences));
+
+        // colors are ranks of sorted signatures
+        Map<Symbol, Integer> colors = Maps.newHashMap();
+        occurrences.keySet().forEach(symbol -> colors.put(symbol, 0));
+        int colorCount = 1;
+
+        while (true) {
+            Map<Symbol, String> signatures = Maps.newHashMap();
+            for (Map.Entry<Symbol, List<Fact>> entry : occurrences.entrySet()) {
+                List<String> descriptions = entry.getValue().stream()
+                        .map(fact -> fact.describe(entry.getKey(), colors))
+                        .sorted()
+                        .collect(Collectors.toList());
+                signatures.put(entry.getKey(), colors.get(entry.getKey()) + "|" + StringUtils.join(descriptions, ";"));
+            }
+
+            List<String> sortedSignatures = signatures.values().stream().distinct().sorted().collect(Collectors.toList());
+            signatures.forEach((symbol, signature) -> colors.put(symbol, Collections.binarySearch(sortedSignatures, signature)));
+
+            if (sortedSignatures.size() == colorCount) {
+                return colors;
+            }
+            colorCount = sortedSignatures.size();
+        }
+    }
+
+    private static void addFacts(String part, Set<InstancedPredicate> facts, Map<Symbol, List<Fact>> occurrences) {
+        for (InstancedPredicate predicate : facts) {
+            Fact fact = new Fact(part, predicate);
+            predicate.getSymbols().forEach(symbol -> occurrences.computeIfAbsent(symbol, s -> Lists.newArrayList()).add(fact));
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Fact {
+        private final String part;
+        private final InstancedPredicate predicate;
+
+        // fact as seen from one of its symbols, the symbol itself is marked by its position
+        String describe(Symbol symbol, Map<Symbol, Integer> colors) {
+            List<String> arguments = predicate.getSymbols().stream()
+                    .map(argument -> argument.equals(symbol) ? "*" : String.valueOf(colors.get(argument)))
+                    .collect(Collectors.toList());
+
+            return String.format("%s%s%s(%s)", part, predicate.isState() ? "+" : "-", predicate.getType().getName(), StringUtils.join(arguments, ","));
+        }
+    }
+}
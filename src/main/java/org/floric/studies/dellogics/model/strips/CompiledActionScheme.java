@@ -0,0 +1,79 @@
+package org.floric.studies.dellogics.model.strips;
+
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.grounding.AtomTable;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+// validated form of an action scheme, applying it does no model checks at all
+@Getter
+public class CompiledActionScheme {
+    private final ActionScheme scheme;
+    private final int arity;
+    private final List<CompiledPredicate> preConditions;
+    private final List<CompiledPredicate> addEffects;
+    private final List<CompiledPredicate> deleteEffects;
+
+    CompiledActionScheme(ActionScheme scheme, List<CompiledPredicate> preConditions, List<CompiledPredicate> addEffects, List<CompiledPredicate> deleteEffects) {
+        this.scheme = scheme;
+        this.arity = scheme.getPredicate().getVariables().size();
+        this.preConditions = ImmutableList.copyOf(preConditions);
+        this.addEffects = ImmutableList.copyOf(addEffects);
+        this.deleteEffects = ImmutableList.copyOf(deleteEffects);
+    }
+
+    public boolean canApply(List<Symbol> symbols, Set<InstancedPredicate> state) {
+        // states only hold positive instances, so negative conditions look up the positive instance and must miss it
+        for (CompiledPredicate condition : preConditions) {
+            if (state.contains(InstancedPredicate.of(condition.getType(), condition.bind(symbols))) != condition.isState()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public Set<InstancedPredicate> apply(List<Symbol> symbols, Set<InstancedPredicate> state) {
+        InstancedPredicate[] deleted = new InstancedPredicate[deleteEffects.size()];
+        for (int i = 0; i < deleted.length; i++) {
+            deleted[i] = InstancedPredicate.of(deleteEffects.get(i).getType(), deleteEffects.get(i).bind(symbols));
+        }
+
+        InstancedPredicate[] added = new InstancedPredicate[addEffects.size()];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = addEffects.get(i).instantiate(symbols);
+        }
+
+        return IndexedState.of(state).apply(ImmutableList.copyOf(deleted), ImmutableList.copyOf(added));
+    }
+
+    public boolean canApply(List<Symbol> symbols, PackedState state, AtomTable atoms) {
+        // atoms missing in the table were never part of any state and count as false
+        for (CompiledPredicate condition : preConditions) {
+            int atomId = atoms.getId(condition.getType(), condition.bind(symbols));
+            boolean isTrue = atomId != AtomTable.UNKNOWN_ATOM && state.contains(atomId);
+
+            if (isTrue != condition.isState()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public PackedState apply(List<Symbol> symbols, PackedState state, AtomTable atoms) {
+        return state.apply(toMask(deleteEffects, symbols, atoms), toMask(addEffects, symbols, atoms));
+    }
+
+    private PackedState toMask(List<CompiledPredicate> predicates, List<Symbol> symbols, AtomTable atoms) {
+        BitSet bits = new BitSet();
+        for (CompiledPredicate predicate : predicates) {
+            bits.set(atoms.getOrCreateId(predicate.getType(), predicate.bind(symbols)));
+        }
+        return PackedState.of(bits);
+    }
+}
@@ -0,0 +1,28 @@
+package org.floric.studies.dellogics.model.strips;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CompiledPredicate {
+    private final PredicateType type;
+    private final boolean state;
+    // index of the action parameter used for every argument
+    private final int[] variableIndices;
+
+    public List<Symbol> bind(List<Symbol> symbols) {
+        Symbol[] bound = new Symbol[variableIndices.length];
+        for (int i = 0; i < variableIndices.length; i++) {
+            bound[i] = symbols.get(variableIndices[i]);
+        }
+        return Arrays.asList(bound);
+    }
+
+    public InstancedPredicate instantiate(List<Symbol> symbols) {
+        return InstancedPredicate.of(type, state, bind(symbols));
+    }
+}
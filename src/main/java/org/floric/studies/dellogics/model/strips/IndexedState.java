@@ -0,0 +1,127 @@
+package org.floric.studies.dellogics.model.strips;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.exceptions.NoNegPredicatesAllowedException;
+
+import java.util.*;
+
+// state grouped by predicate type, successors share all buckets of types that were not changed
+public class IndexedState extends AbstractSet<InstancedPredicate> {
+
+    private final Map<PredicateType, Set<InstancedPredicate>> buckets;
+    private final int size;
+
+    private IndexedState(Map<PredicateType, Set<InstancedPredicate>> buckets, int size) {
+        this.buckets = buckets;
+        this.size = size;
+    }
+
+    public static IndexedState of(Collection<InstancedPredicate> state) {
+        if (state instanceof IndexedState) {
+            return (IndexedState) state;
+        }
+
+        Builder builder = builder();
+        state.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<InstancedPredicate> getInstances(PredicateType type) {
+        return Collections.unmodifiableSet(buckets.getOrDefault(type, Collections.emptySet()));
+    }
+
+    // the bucket itself, only to find out which buckets are shared between states
+    Set<InstancedPredicate> getBucket(PredicateType type) {
+        return buckets.get(type);
+    }
+
+    public IndexedState apply(Collection<InstancedPredicate> deleted, Collection<InstancedPredicate> added) {
+        Map<PredicateType, Set<InstancedPredicate>> newBuckets = Maps.newHashMap(buckets);
+        Set<PredicateType> copiedTypes = Sets.newHashSet();
+        int newSize = size;
+
+        // deletes first, adds win if an instance is part of both
+        for (InstancedPredicate instance : deleted) {
+            Set<InstancedPredicate> bucket = newBuckets.get(instance.getType());
+            if (bucket != null && bucket.contains(instance)) {
+                getCopiedBucket(newBuckets, copiedTypes, instance.getType()).remove(instance);
+                newSize--;
+            }
+        }
+
+        for (InstancedPredicate instance : added) {
+            if (!instance.isState()) {
+                throw new NoNegPredicatesAllowedException();
+            }
+            if (getCopiedBucket(newBuckets, copiedTypes, instance.getType()).add(instance)) {
+                newSize++;
+            }
+        }
+
+        return new IndexedState(newBuckets, newSize);
+    }
+
+    private Set<InstancedPredicate> getCopiedBucket(Map<PredicateType, Set<InstancedPredicate>> newBuckets, Set<PredicateType> copiedTypes, PredicateType type) {
+        if (copiedTypes.add(type)) {
+            newBuckets.put(type, Sets.newHashSet(newBuckets.getOrDefault(type, Collections.emptySet())));
+        }
+        return newBuckets.get(type);
+    }
+
+    public static class Builder {
+        private Map<PredicateType, Set<InstancedPredicate>> buckets = Maps.newHashMap();
+        private int size;
+
+        public Builder add(PredicateType type, Symbol... symbols) {
+            return add(InstancedPredicate.of(type, symbols));
+        }
+
+        public Builder add(InstancedPredicate instance) {
+            if (!instance.isState()) {
+                throw new NoNegPredicatesAllowedException();
+            }
+
+            if (buckets.computeIfAbsent(instance.getType(), type -> Sets.newHashSet()).add(InstancedPredicate.of(instance))) {
+                size++;
+            }
+            return this;
+        }
+
+        public IndexedState build() {
+            IndexedState state = new IndexedState(buckets, size);
+
+            // the built state owns the buckets, the builder starts over
+            buckets = Maps.newHashMap();
+            size = 0;
+            return state;
+        }
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof InstancedPredicate)) {
+            return false;
+        }
+
+        Set<InstancedPredicate> bucket = buckets.get(((InstancedPredicate) object).getType());
+        return bucket != null && bucket.contains(object);
+    }
+
+    @Override
+    public Iterator<InstancedPredicate> iterator() {
+        return Iterators.unmodifiableIterator(Iterators.concat(
+                buckets.values().stream().map(Set::iterator).iterator()
+        ));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -1,38 +1,82 @@
 package org.floric.studies.dellogics.model.strips;
 
-import com.google.common.collect.Lists;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.util.List;
 
-@Data
-@AllArgsConstructor
-public class InstancedPredicate {
+@Getter
+@ToString(exclude = "hash")
+public final class InstancedPredicate {
+
+    // canonical instances, equal atoms created with of() are the same object. the public constructors stay for
+    // existing callers, so instances created with them are not canonical and equality has to stay structural
+    private static final Interner<InstancedPredicate> INTERNER = Interners.newWeakInterner();
 
     public InstancedPredicate(PredicateType type, Symbol... symbols) {
-        this.type = type;
-        this.symbols = Lists.newArrayList(symbols);
+        this(type, true, ImmutableList.copyOf(symbols));
     }
 
     public InstancedPredicate(PredicateType type, List<Symbol> symbols) {
-        this.type = type;
-        this.symbols = symbols;
+        this(type, true, symbols);
     }
 
     public InstancedPredicate(PredicateType type, boolean state, Symbol... symbols) {
-        this.type = type;
-        this.symbols = Lists.newArrayList(symbols);
-        this.state = state;
+        this(type, state, ImmutableList.copyOf(symbols));
     }
 
     public InstancedPredicate(PredicateType type, boolean state, List<Symbol> symbols) {
         this.type = type;
-        this.symbols = symbols;
+        this.symbols = ImmutableList.copyOf(symbols);
         this.state = state;
+        this.hash = (31 * type.hashCode() + this.symbols.hashCode()) * 2 + (state ? 1 : 0);
     }
 
-    private PredicateType type;
-    private List<Symbol> symbols;
-    private boolean state = true;
+    public static InstancedPredicate of(PredicateType type, Symbol... symbols) {
+        return INTERNER.intern(new InstancedPredicate(type, symbols));
+    }
+
+    public static InstancedPredicate of(PredicateType type, List<Symbol> symbols) {
+        return INTERNER.intern(new InstancedPredicate(type, symbols));
+    }
+
+    public static InstancedPredicate of(PredicateType type, boolean state, List<Symbol> symbols) {
+        return INTERNER.intern(new InstancedPredicate(type, state, symbols));
+    }
+
+    public static InstancedPredicate of(InstancedPredicate instance) {
+        return INTERNER.intern(instance);
+    }
+
+    private final PredicateType type;
+    private final ImmutableList<Symbol> symbols;
+    private final boolean state;
+
+    private final int hash;
+
+    @Override
+    public boolean equals(Object other) {
+        // two canonical instances are equal only if they are the same object, so that check comes first.
+        // instances from the constructors still need the structural comparison, the hash check skips most of them
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof InstancedPredicate)) {
+            return false;
+        }
+
+        InstancedPredicate otherInstance = (InstancedPredicate) other;
+        return hash == otherInstance.hash
+                && state == otherInstance.state
+                && type.equals(otherInstance.type)
+                && symbols.equals(otherInstance.symbols);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
@@ -1,9 +1,9 @@
 package org.floric.studies.dellogics.model.strips;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
 
-@Data
+@Value
 @AllArgsConstructor
 public class PredicateType {
     private String name;
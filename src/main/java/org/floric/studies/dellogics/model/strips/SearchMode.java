@@ -0,0 +1,17 @@
+package org.floric.studies.dellogics.model.strips;
+
+public enum SearchMode {
+    // exhaustive enumeration of all acyclic plans, only kept for comparison
+    ALL_PLANS,
+    BREADTH_FIRST,
+    UNIFORM_COST,
+    A_STAR,
+    GREEDY_BEST_FIRST,
+    PARALLEL_BREADTH_FIRST,
+    // weighted A* with decreasing weights, returns the best plan so far when stopped early
+    ANYTIME,
+    // breadth first from the goal over partial states, for small goals in big initial states
+    REGRESSION,
+    // planning as satisfiability with a growing horizon, plans have the fewest parallel steps
+    SAT
+}
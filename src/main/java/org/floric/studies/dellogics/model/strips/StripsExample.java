@@ -2,6 +2,7 @@ package org.floric.studies.dellogics.model.strips;
 
 import com.google.common.collect.Sets;
 import org.floric.studies.dellogics.model.Example;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
 
 import java.lang.*;
 import java.util.List;
@@ -18,6 +19,18 @@ public class StripsExample implements Example {
         Optional<List<ActionApplication>> solution = solver.getBestSolution(task);
 
         solution.ifPresent(StripsSolver::printSolution);
+
+        // compare the effort of the different search modes
+        for (SearchMode mode : SearchMode.values()) {
+            StripsSolver modeSolver = new StripsSolver(mode);
+            modeSolver.getBestSolution(task);
+
+            SearchStatistics statistics = modeSolver.getStatistics();
+            System.out.println(String.format(
+                    "%s: %d expanded, %d generated, %d ms",
+                    mode, statistics.getExpandedNodes(), statistics.getGeneratedNodes(), statistics.getElapsedMillis()
+            ));
+        }
     }
 
     public StripsPlanningTask createTask() {
@@ -56,19 +69,19 @@ public class StripsExample implements Example {
         );
 
         // task
-        Set<InstancedPredicate> startState = Sets.newHashSet(
-                new InstancedPredicate(at, father, home),
-                new InstancedPredicate(at, present, postOffice),
-                new InstancedPredicate(isAgent, father),
-                new InstancedPredicate(isLocation, home),
-                new InstancedPredicate(isLocation, postOffice),
-                new InstancedPredicate(isObject, present)
-        );
-        Set<InstancedPredicate> goalState = Sets.newHashSet(
-                new InstancedPredicate(at, father, home),
-                new InstancedPredicate(wrapped, present),
-                new InstancedPredicate(has, father, present)
-        );
+        Set<InstancedPredicate> startState = IndexedState.builder()
+                .add(at, father, home)
+                .add(at, present, postOffice)
+                .add(isAgent, father)
+                .add(isLocation, home)
+                .add(isLocation, postOffice)
+                .add(isObject, present)
+                .build();
+        Set<InstancedPredicate> goalState = IndexedState.builder()
+                .add(at, father, home)
+                .add(wrapped, present)
+                .add(has, father, present)
+                .build();
         Set<ActionScheme> actions = Sets.newHashSet(goAction, pickUpAction, wrapAction);
 
         return new StripsPlanningTask(actions, startState, goalState);
@@ -0,0 +1,148 @@
+package org.floric.studies.dellogics.model.strips;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.Setter;
+import org.floric.studies.dellogics.model.search.ClosedSet;
+import org.floric.studies.dellogics.model.search.SearchProblem;
+import org.floric.studies.dellogics.model.search.Successor;
+import org.floric.studies.dellogics.model.strips.grounding.GoalTracker;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+import org.floric.studies.dellogics.model.strips.grounding.PackedStateSet;
+import org.floric.studies.dellogics.model.strips.grounding.SuccessorGenerator;
+import org.floric.studies.dellogics.model.strips.grounding.ZobristHasher;
+import org.floric.studies.dellogics.model.strips.pruning.ObjectSymmetries;
+import org.floric.studies.dellogics.model.strips.pruning.StrongStubbornSets;
+import org.floric.studies.dellogics.model.strips.pruning.SymmetricClosedSet;
+import org.floric.studies.dellogics.model.strips.pruning.SymmetryReduction;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class StripsSearchProblem implements SearchProblem<PackedState, ActionApplication> {
+
+    @Getter
+    private final GroundedTask task;
+
+    private final SuccessorGenerator successorGenerator;
+    @Getter
+    private final GoalTracker goalTracker;
+    private final ZobristHasher hasher;
+    private final PackedState initialState;
+
+    @Setter
+    private boolean isStoringStatesOffHeap;
+    // drops interleavings of independent actions, null if all applicable actions are expanded
+    @Getter
+    private StrongStubbornSets stubbornSets;
+    // symmetric states share one entry in the closed set, null if states are only merged when equal
+    @Getter
+    private SymmetryReduction symmetryReduction;
+
+    // time spent in finding applicable actions and in applying them, only measured when profiling.
+    // parallel engines expand on several threads at once
+    private final boolean isProfiling;
+    private final LongAdder applicabilityNanos = new LongAdder();
+    private final LongAdder applicationNanos = new LongAdder();
+
+    public StripsSearchProblem(GroundedTask task) {
+        this(task, false);
+    }
+
+    public StripsSearchProblem(GroundedTask task, boolean isProfiling) {
+        this.task = task;
+        this.isProfiling = isProfiling;
+        this.successorGenerator = new SuccessorGenerator(task.getActions());
+        this.goalTracker = new GoalTracker(task);
+        this.hasher = new ZobristHasher(task);
+        this.initialState = hasher.track(goalTracker.track(task.getInitialState()));
+    }
+
+    public long getApplicabilityNanos() {
+        return applicabilityNanos.sum();
+    }
+
+    public long getApplicationNanos() {
+        return applicationNanos.sum();
+    }
+
+    @Override
+    public PackedState getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public boolean isGoal(PackedState state) {
+        // successors carry their goal count, only foreign states need the full check
+        if (state.getUnsatisfiedGoals() != PackedState.UNKNOWN_GOAL_COUNT) {
+            return state.getUnsatisfiedGoals() == 0;
+        }
+
+        return StripsSolver.isContainingGoalState(state, task.getGoal());
+    }
+
+    public void setPruningPartialOrders(boolean isPruning) {
+        stubbornSets = isPruning ? new StrongStubbornSets(task) : null;
+    }
+
+    public void setSymmetries(ObjectSymmetries symmetries) {
+        symmetryReduction = symmetries == null || symmetries.isEmpty() ? null : new SymmetryReduction(task, symmetries);
+    }
+
+    @Override
+    public List<Successor<PackedState, ActionApplication>> getSuccessors(PackedState state) {
+        if (isProfiling) {
+            return getSuccessorsProfiled(state);
+        }
+        if (stubbornSets != null) {
+            return createSuccessors(state, getApplicableActions(state));
+        }
+
+        List<Successor<PackedState, ActionApplication>> successors = Lists.newArrayList();
+
+        successorGenerator.forEachApplicableAction(state, action ->
+                successors.add(new Successor<>(action.getApplication(), apply(state, action)))
+        );
+
+        return successors;
+    }
+
+    private List<Successor<PackedState, ActionApplication>> getSuccessorsProfiled(PackedState state) {
+        // both steps are separated so they can be timed on their own
+        long startTime = System.nanoTime();
+        List<GroundAction> actions = getApplicableActions(state);
+        long applicableTime = System.nanoTime();
+
+        List<Successor<PackedState, ActionApplication>> successors = createSuccessors(state, actions);
+
+        applicabilityNanos.add(applicableTime - startTime);
+        applicationNanos.add(System.nanoTime() - applicableTime);
+        return successors;
+    }
+
+    private List<GroundAction> getApplicableActions(PackedState state) {
+        List<GroundAction> actions = successorGenerator.getApplicableActions(state);
+        return stubbornSets == null ? actions : stubbornSets.prune(state, actions);
+    }
+
+    private List<Successor<PackedState, ActionApplication>> createSuccessors(PackedState state, List<GroundAction> actions) {
+        List<Successor<PackedState, ActionApplication>> successors = Lists.newArrayListWithCapacity(actions.size());
+        for (GroundAction action : actions) {
+            successors.add(new Successor<>(action.getApplication(), apply(state, action)));
+        }
+        return successors;
+    }
+
+    @Override
+    public ClosedSet<PackedState> createClosedSet() {
+        PackedStateSet states = new PackedStateSet(hasher, task.getAtoms().size(), isStoringStatesOffHeap);
+        return symmetryReduction == null ? states : new SymmetricClosedSet(states, symmetryReduction);
+    }
+
+    private PackedState apply(PackedState state, GroundAction action) {
+        // goal count and hash of the successor only depend on the atoms the action changes
+        return action.apply(state, goalTracker.getSuccessorCount(state, action), hasher.getSuccessorHash(state, action));
+    }
+}
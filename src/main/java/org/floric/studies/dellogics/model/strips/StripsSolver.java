@@ -2,36 +2,289 @@ package org.floric.studies.dellogics.model.strips;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.Setter;
 import org.floric.studies.dellogics.model.Solver;
+import org.floric.studies.dellogics.model.search.AnytimeSearch;
+import org.floric.studies.dellogics.model.search.BestFirstSearch;
+import org.floric.studies.dellogics.model.search.BreadthFirstSearch;
+import org.floric.studies.dellogics.model.search.KShortestPlans;
+import org.floric.studies.dellogics.model.search.ParallelBreadthFirstSearch;
+import org.floric.studies.dellogics.model.search.PhaseRecorder;
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchEngine;
+import org.floric.studies.dellogics.model.search.SearchListener;
+import org.floric.studies.dellogics.model.search.SearchMonitor;
+import org.floric.studies.dellogics.model.search.SearchPhase;
+import org.floric.studies.dellogics.model.search.SearchResult;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.cache.CanonicalStep;
+import org.floric.studies.dellogics.model.strips.cache.PlanCache;
+import org.floric.studies.dellogics.model.strips.cache.TaskFingerprint;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.Grounder;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+import org.floric.studies.dellogics.model.strips.grounding.ReductionReport;
+import org.floric.studies.dellogics.model.strips.grounding.TaskReducer;
+import org.floric.studies.dellogics.model.strips.heuristics.HeuristicFactory;
+import org.floric.studies.dellogics.model.strips.heuristics.HeuristicType;
+import org.floric.studies.dellogics.model.strips.pruning.ObjectSymmetries;
+import org.floric.studies.dellogics.model.strips.regression.MutexTable;
+import org.floric.studies.dellogics.model.strips.regression.RegressionSearchProblem;
+import org.floric.studies.dellogics.model.strips.regression.RegressionState;
+import org.floric.studies.dellogics.model.strips.sat.SatPlanner;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class StripsSolver implements Solver {
 
+    private final SearchMode searchMode;
+    private final HeuristicFactory heuristicFactory;
+
+    @Setter
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    @Setter
+    private PlanCache planCache;
+
+    // visited states of the grounded searches are kept in direct buffers
+    @Setter
+    private boolean isStoringStatesOffHeap;
+
+    // expands only a strong stubborn set of the applicable actions, plans stay optimal
+    @Setter
+    private boolean isPruningPartialOrders;
+
+    // states symmetric under swapping interchangeable objects are expanded only once
+    @Setter
+    private boolean isPruningSymmetries;
+
+    // unreachable and irrelevant atoms and actions are removed from the grounded task before the search
+    @Setter
+    private boolean isReducingTask = true;
+
+    // longest plan in parallel steps the sat mode looks for
+    @Setter
+    private int maxHorizon = SatPlanner.DEFAULT_MAX_HORIZON;
+
+    // statistics and reduction of the last finished search. concurrent searches with one solver only get their own
+    // statistics from the returned search result, these fields hold the ones of whichever search finished last
+    @Getter
+    private volatile SearchStatistics statistics = new SearchStatistics();
+
+    // what the reduction of the last grounded task removed, null if it wasn't reduced
+    @Getter
+    private volatile ReductionReport reductionReport;
+
+    public StripsSolver() {
+        this(SearchMode.BREADTH_FIRST);
+    }
+
+    public StripsSolver(SearchMode searchMode) {
+        this(searchMode, searchMode == SearchMode.GREEDY_BEST_FIRST ? HeuristicType.FF : HeuristicType.MAX);
+    }
+
+    public StripsSolver(SearchMode searchMode, HeuristicFactory heuristicFactory) {
+        this.searchMode = searchMode;
+        this.heuristicFactory = heuristicFactory;
+    }
+
     public Optional<List<ActionApplication>> getBestSolution(StripsPlanningTask task) {
+        return getBestSolution(task, SearchControl.unlimited());
+    }
+
+    public Optional<List<ActionApplication>> getBestSolution(StripsPlanningTask task, SearchControl control) {
+        return findSolution(task, control).getPlan();
+    }
+
+    public SearchResult<ActionApplication> findSolution(StripsPlanningTask task) {
+        return findSolution(task, SearchControl.unlimited());
+    }
+
+    public SearchResult<ActionApplication> findSolution(StripsPlanningTask task, SearchControl control) {
+        // custom heuristics have no stable name to store their plans under
+        if (planCache == null || (isUsingHeuristic() && !(heuristicFactory instanceof HeuristicType))) {
+            return solve(task, control);
+        }
+
+        TaskFingerprint fingerprint = TaskFingerprint.of(task);
+        String key = getCacheKey(fingerprint);
+
+        Optional<List<CanonicalStep>> cachedPlan = planCache.get(key);
+        if (cachedPlan.isPresent()) {
+            SearchStatistics cachedStatistics = new SearchStatistics();
+            cachedStatistics.setStatus(SearchStatus.SOLVED);
+            control.getListener().onSearchFinished(cachedStatistics);
+            statistics = cachedStatistics;
+            return new SearchResult<>(Optional.of(fingerprint.fromCanonical(cachedPlan.get())), cachedStatistics);
+        }
+
+        SearchResult<ActionApplication> result = solve(task, control);
+        if (result.getPlan().isPresent() && result.getStatistics().getStatus() == SearchStatus.SOLVED) {
+            planCache.put(key, fingerprint.toCanonical(result.getPlan().get()));
+        }
+
+        return result;
+    }
+
+    // plans differ with the mode and the options, so every combination has its own entries
+    private String getCacheKey(TaskFingerprint fingerprint) {
+        List<String> parts = Lists.newArrayList(searchMode.name());
+        if (isUsingHeuristic()) {
+            parts.add(((HeuristicType) heuristicFactory).name());
+        }
+        if (searchMode == SearchMode.PARALLEL_BREADTH_FIRST) {
+            parts.add("parallelism=" + parallelism);
+        }
+        if (searchMode == SearchMode.SAT) {
+            parts.add("horizon=" + maxHorizon);
+        }
+        parts.add("partialOrders=" + isPruningPartialOrders);
+        parts.add("symmetries=" + isPruningSymmetries);
+        parts.add("reduced=" + isReducingTask);
+        parts.add(fingerprint.getKey());
+
+        return String.join(":", parts);
+    }
+
+    private boolean isUsingHeuristic() {
+        return searchMode == SearchMode.A_STAR || searchMode == SearchMode.GREEDY_BEST_FIRST || searchMode == SearchMode.ANYTIME;
+    }
+
+    // everything of one search stays local, the fields are only set once it is finished
+    private SearchResult<ActionApplication> solve(StripsPlanningTask task, SearchControl control) {
+        PhaseRecorder phases = new PhaseRecorder(control.getListener());
+        SearchResult<ActionApplication> result;
+        ReductionReport report = null;
+
+        if (searchMode == SearchMode.ALL_PLANS) {
+            result = phases.record(SearchPhase.SEARCH, () -> getBestSolutionFromAllPlans(task, control.start()));
+        } else {
+            TaskReducer reducer = isReducingTask ? new TaskReducer() : null;
+            GroundedTask groundedTask = phases.record(SearchPhase.GROUNDING, () -> ground(task, reducer));
+            report = reducer == null ? null : reducer.getReport();
+
+            if (report != null && !report.isGoalReachable()) {
+                // not even the relaxed task reaches the goal
+                SearchStatistics unsolvable = new SearchStatistics();
+                unsolvable.setStatus(SearchStatus.UNSOLVABLE);
+                result = new SearchResult<>(Optional.empty(), unsolvable);
+            } else {
+                result = search(task, groundedTask, control, phases);
+            }
+        }
+
+        phases.finish(result.getStatistics());
+        statistics = result.getStatistics();
+        reductionReport = report;
+        return result;
+    }
+
+    private GroundedTask ground(StripsPlanningTask task, TaskReducer reducer) {
+        GroundedTask groundedTask = new Grounder().ground(task);
+        return reducer == null ? groundedTask : reducer.reduce(groundedTask);
+    }
+
+    private SearchResult<ActionApplication> search(StripsPlanningTask task, GroundedTask groundedTask, SearchControl control, PhaseRecorder phases) {
+        if (searchMode == SearchMode.REGRESSION) {
+            return regress(groundedTask, control, phases);
+        }
+        if (searchMode == SearchMode.SAT) {
+            SatPlanner planner = new SatPlanner();
+            planner.setMaxHorizon(maxHorizon);
+
+            Optional<List<ActionApplication>> solution = phases.record(SearchPhase.SEARCH, () -> planner.plan(groundedTask, control));
+            return new SearchResult<>(solution, planner.getStatistics());
+        }
+
+        SearchEngine<PackedState, ActionApplication> engine = createSearchEngine(groundedTask);
+
+        // timing single successor steps costs too much to do it without anybody listening
+        StripsSearchProblem problem = new StripsSearchProblem(groundedTask, control.getListener() != SearchListener.NONE);
+        problem.setStoringStatesOffHeap(isStoringStatesOffHeap);
+        problem.setPruningPartialOrders(isPruningPartialOrders);
+        if (isPruningSymmetries) {
+            problem.setSymmetries(phases.record(SearchPhase.GROUNDING, () -> ObjectSymmetries.of(task)));
+        }
+
+        Optional<List<ActionApplication>> solution = phases.record(SearchPhase.SEARCH, () -> engine.search(problem, control));
+        SearchStatistics searchStatistics = engine.getStatistics();
+        searchStatistics.addPhaseNanos(SearchPhase.APPLICABILITY, problem.getApplicabilityNanos());
+        searchStatistics.addPhaseNanos(SearchPhase.APPLICATION, problem.getApplicationNanos());
+        if (problem.getStubbornSets() != null) {
+            searchStatistics.setApplicableActions(problem.getStubbornSets().getApplicableActions());
+            searchStatistics.setPrunedActions(problem.getStubbornSets().getPrunedActions());
+        }
+
+        return new SearchResult<>(solution, searchStatistics);
+    }
+
+    private SearchResult<ActionApplication> regress(GroundedTask groundedTask, SearchControl control, PhaseRecorder phases) {
+        BreadthFirstSearch<RegressionState, ActionApplication> engine = new BreadthFirstSearch<>();
+        // the mutexes are found on the grounded task before the search starts
+        MutexTable mutexes = phases.record(SearchPhase.GROUNDING, () -> new MutexTable(groundedTask));
+        RegressionSearchProblem problem = new RegressionSearchProblem(groundedTask, mutexes);
+
+        Optional<List<ActionApplication>> solution = phases.record(SearchPhase.SEARCH, () -> engine.search(problem, control));
+
+        // the first regressed action is the last one to execute
+        return new SearchResult<>(solution.map(plan -> Lists.newArrayList(Lists.reverse(plan))), engine.getStatistics());
+    }
+
+    // all acyclic plans in nondecreasing length, each one is only searched when it is consumed
+    public Stream<List<ActionApplication>> getSolutions(StripsPlanningTask task) {
+        return KShortestPlans.stream(new StripsSearchProblem(new Grounder().ground(task)));
+    }
+
+    private SearchEngine<PackedState, ActionApplication> createSearchEngine(GroundedTask task) {
+        switch (searchMode) {
+            case BREADTH_FIRST:
+                return new BreadthFirstSearch<>();
+            case UNIFORM_COST:
+                return BestFirstSearch.uniformCost();
+            case A_STAR:
+                return BestFirstSearch.aStar(heuristicFactory.create(task));
+            case GREEDY_BEST_FIRST:
+                return BestFirstSearch.greedy(heuristicFactory.create(task));
+            case PARALLEL_BREADTH_FIRST:
+                return new ParallelBreadthFirstSearch<>(parallelism);
+            case ANYTIME:
+                return new AnytimeSearch<>(heuristicFactory.create(task));
+            default:
+                throw new IllegalStateException(String.format("No search engine for mode %s!", searchMode));
+        }
+    }
+
+    private SearchResult<ActionApplication> getBestSolutionFromAllPlans(StripsPlanningTask task, SearchMonitor monitor) {
+        SearchStatistics statistics = new SearchStatistics();
+
         Set<ActionScheme> actions = task.getActions();
         Set<InstancedPredicate> startingState = task.getStartingState();
         Set<InstancedPredicate> goalState = task.getGoalFormula();
 
         Set<Symbol> symbols = getSymbolsFromState(startingState);
 
-        List<List<ActionApplication>> solutions = Lists.newArrayList(tryFindSolutions(actions, startingState, goalState, symbols));
+        List<List<ActionApplication>> solutions = Lists.newArrayList(tryFindSolutions(actions, startingState, goalState, symbols, monitor, statistics));
+        statistics.setElapsedMillis(monitor.getElapsedMillis());
+        statistics.setStatus(monitor.getStatus(!solutions.isEmpty()));
 
         if (solutions.isEmpty()) {
-            return Optional.empty();
+            return new SearchResult<>(Optional.empty(), statistics);
         }
 
         solutions.sort(Comparator.comparing(List::size));
 
-        return Optional.ofNullable(solutions.get(0));
+        return new SearchResult<>(Optional.ofNullable(solutions.get(0)), statistics);
     }
 
-    private Set<List<ActionApplication>> tryFindSolutions(Set<ActionScheme> actions, Set<InstancedPredicate> currentState, Set<InstancedPredicate> goalState, Set<Symbol> symbols) {
-        return tryFindSolutionsRec(actions, currentState, goalState, symbols, Lists.newArrayList(), Lists.newArrayList());
+    private Set<List<ActionApplication>> tryFindSolutions(Set<ActionScheme> actions, Set<InstancedPredicate> currentState, Set<InstancedPredicate> goalState, Set<Symbol> symbols, SearchMonitor monitor, SearchStatistics statistics) {
+        return tryFindSolutionsRec(actions, currentState, goalState, symbols, Lists.newArrayList(), Sets.newHashSet(), monitor, statistics);
     }
 
-    private Set<List<ActionApplication>> tryFindSolutionsRec(Set<ActionScheme> actions, Set<InstancedPredicate> currentState, Set<InstancedPredicate> goalState, Set<Symbol> symbols, List<ActionApplication> currentSolution, List<Set<InstancedPredicate>> usedStates) {
+    private Set<List<ActionApplication>> tryFindSolutionsRec(Set<ActionScheme> actions, Set<InstancedPredicate> currentState, Set<InstancedPredicate> goalState, Set<Symbol> symbols, List<ActionApplication> currentSolution, Set<Set<InstancedPredicate>> usedStates, SearchMonitor monitor, SearchStatistics statistics) {
         Set<List<ActionApplication>> solutions = Sets.newHashSet();
 
         // check for solution state
@@ -40,12 +293,13 @@ public class StripsSolver implements Solver {
             return solutions;
         }
 
-        // avoid cycles where old states are repeated
-        if (usedStates.contains(currentState)) {
+        // avoid cycles where old states are repeated, a stopped search keeps the plans found so far
+        if (usedStates.contains(currentState) || monitor.shouldStop(statistics, 0)) {
             return solutions;
         }
 
         usedStates.add(currentState);
+        statistics.incrementExpandedNodes();
 
         // try all possible actions recursively
         for(ActionScheme scheme: actions) {
@@ -61,18 +315,20 @@ public class StripsSolver implements Solver {
 
             // try all possible combinations
             for (List<Symbol> call: possibleCalls) {
+                statistics.incrementGeneratedNodes();
                 List<ActionApplication> newSolution = Lists.newArrayList(currentSolution);
                 newSolution.add(new ActionApplication(scheme, call));
 
                 // apply new action
                 Set<InstancedPredicate> newState = scheme.apply(call, currentState);
-                List<Set<InstancedPredicate>> newUsedStates = Lists.newArrayList(usedStates);
 
                 // try again all new possible actions
-                solutions.addAll(tryFindSolutionsRec(actions, newState, goalState, symbols, newSolution, newUsedStates));
+                solutions.addAll(tryFindSolutionsRec(actions, newState, goalState, symbols, newSolution, usedStates, monitor, statistics));
             }
         }
 
+        // only states on the current path count as cycles, so the state is free again for other branches
+        usedStates.remove(currentState);
         return solutions;
     }
 
@@ -83,6 +339,10 @@ public class StripsSolver implements Solver {
                 .orElse(true);
     }
 
+    public static boolean isContainingGoalState(PackedState state, PackedState goalState) {
+        return state.containsAll(goalState);
+    }
+
     public static void printState(Set<InstancedPredicate> state) {
         System.out.println("State:");
         System.out.println(state.stream()
@@ -107,7 +367,7 @@ public class StripsSolver implements Solver {
         )));
     }
 
-    private Set<List<Symbol>> getSymbolPermutations(int permutationSize, Set<Symbol> symbols) {
+    static Set<List<Symbol>> getSymbolPermutations(int permutationSize, Set<Symbol> symbols) {
         if (permutationSize <= 0) {
             throw new RuntimeException("Permutations needs to be higher then 0");
         }
@@ -115,7 +375,7 @@ public class StripsSolver implements Solver {
         return getSymbolPermutationsRec(permutationSize, symbols, Lists.newArrayList());
     }
 
-    private Set<List<Symbol>> getSymbolPermutationsRec(int permutationSize, Set<Symbol> symbols, List<Symbol> currentList) {
+    private static Set<List<Symbol>> getSymbolPermutationsRec(int permutationSize, Set<Symbol> symbols, List<Symbol> currentList) {
         Set<List<Symbol>> result = Sets.newHashSet();
 
         if (currentList.size() == permutationSize) {
@@ -132,7 +392,7 @@ public class StripsSolver implements Solver {
         return result;
     }
 
-    private Set<Symbol> getSymbolsFromState(Set<InstancedPredicate> state) {
+    static Set<Symbol> getSymbolsFromState(Set<InstancedPredicate> state) {
         return state.stream()
                 .map(InstancedPredicate::getSymbols)
                 .flatMap(Collection::stream)
@@ -0,0 +1,14 @@
+package org.floric.studies.dellogics.model.strips.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// plan step independent of names, indices refer to the canonical order of a task fingerprint
+@Data
+@AllArgsConstructor
+public class CanonicalStep {
+    private int scheme;
+    private List<Integer> symbols;
+}
@@ -0,0 +1,105 @@
+package org.floric.studies.dellogics.model.strips.cache;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// plans by task fingerprint, least recently used plans are evicted first when the cache is full
+public class PlanCache {
+    private static final char STEP_SEPARATOR = ';';
+    private static final char SCHEME_SEPARATOR = ':';
+    private static final char SYMBOL_SEPARATOR = ',';
+
+    private final Cache<String, List<CanonicalStep>> plans;
+
+    public PlanCache(long maximumSize, long maximumAgeMillis) {
+        plans = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maximumAgeMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public Optional<List<CanonicalStep>> get(String key) {
+        return Optional.ofNullable(plans.getIfPresent(key));
+    }
+
+    public void put(String key, List<CanonicalStep> plan) {
+        plans.put(key, plan);
+    }
+
+    public long size() {
+        return plans.size();
+    }
+
+    public void clear() {
+        plans.invalidateAll();
+    }
+
+    // one plan per line: key, tab and the steps as scheme:symbol,symbol;scheme:symbol
+    public void save(Path file) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, List<CanonicalStep>> entry : plans.asMap().entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(entry.getValue().stream()
+                        .map(step -> step.getScheme() + String.valueOf(SCHEME_SEPARATOR) + StringUtils.join(step.getSymbols(), SYMBOL_SEPARATOR))
+                        .collect(Collectors.joining(String.valueOf(STEP_SEPARATOR))));
+                writer.newLine();
+            }
+        }
+
+        // readers never see a half written file
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // loaded plans count as new for the age based eviction
+    public void load(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator < 0) {
+                    throw new IOException(String.format("Invalid plan cache line: %s", line));
+                }
+
+                plans.put(line.substring(0, separator), parsePlan(line.substring(separator + 1)));
+            }
+        }
+    }
+
+    private List<CanonicalStep> parsePlan(String plan) throws IOException {
+        List<CanonicalStep> steps = Lists.newArrayList();
+
+        try {
+            for (String step : Splitter.on(STEP_SEPARATOR).omitEmptyStrings().split(plan)) {
+                int separator = step.indexOf(SCHEME_SEPARATOR);
+                List<Integer> symbols = Splitter.on(SYMBOL_SEPARATOR).omitEmptyStrings().splitToList(step.substring(separator + 1)).stream()
+                        .map(Integer::valueOf)
+                        .collect(Collectors.toList());
+
+                steps.add(new CanonicalStep(Integer.parseInt(step.substring(0, separator)), symbols));
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IOException(String.format("Invalid plan in plan cache: %s", plan), e);
+        }
+
+        return steps;
+    }
+}
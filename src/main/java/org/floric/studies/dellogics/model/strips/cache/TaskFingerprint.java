@@ -0,0 +1,121 @@
+package org.floric.studies.dellogics.model.strips.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.floric.studies.dellogics.model.strips.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// hash of a canonical description of a task, equal for tasks that only differ in set order or symbol names.
+// symbols are ordered by color refinement over the facts of start and goal. names only break ties refinement can't
+// resolve, so such tasks may miss the cache after renaming, but equal keys always mean the same task up to renaming
+public class TaskFingerprint {
+    private static final String START = "S";
+    private static final String GOAL = "G";
+
+    @Getter
+    private final String key;
+    private final List<ActionScheme> schemes;
+    private final List<Symbol> symbols;
+    private final Map<ActionScheme, Integer> schemeIndices = Maps.newHashMap();
+    private final Map<Symbol, Integer> symbolIndices = Maps.newHashMap();
+
+    private TaskFingerprint(String key, List<ActionScheme> schemes, List<Symbol> symbols) {
+        this.key = key;
+        this.schemes = schemes;
+        this.symbols = symbols;
+
+        for (int i = 0; i < schemes.size(); i++) {
+            schemeIndices.put(schemes.get(i), i);
+        }
+        for (int i = 0; i < symbols.size(); i++) {
+            symbolIndices.put(symbols.get(i), i);
+        }
+    }
+
+    public static TaskFingerprint of(StripsPlanningTask task) {
+        Map<ActionScheme, String> schemeDescriptions = Maps.newHashMap();
+        task.getActions().forEach(scheme -> schemeDescriptions.put(scheme, describe(scheme)));
+        List<ActionScheme> schemes = Lists.newArrayList(task.getActions());
+        schemes.sort(Comparator.comparing(schemeDescriptions::get));
+
+        List<Symbol> symbols = getCanonicalSymbolOrder(task);
+        Map<Symbol, Integer> symbolIndices = Maps.newHashMap();
+        for (int i = 0; i < symbols.size(); i++) {
+            symbolIndices.put(symbols.get(i), i);
+        }
+
+        StringBuilder description = new StringBuilder();
+        schemes.forEach(scheme -> description.append(schemeDescriptions.get(scheme)).append('\n'));
+        description.append(describe(START, task.getStartingState(), symbolIndices)).append('\n');
+        description.append(describe(GOAL, task.getGoalFormula(), symbolIndices));
+
+        String key = Hashing.sha256().hashString(description, StandardCharsets.UTF_8).toString();
+        return new TaskFingerprint(key, schemes, symbols);
+    }
+
+    public List<CanonicalStep> toCanonical(List<ActionApplication> plan) {
+        return plan.stream()
+                .map(step -> new CanonicalStep(
+                        schemeIndices.get(step.getActionScheme()),
+                        step.getSymbols().stream().map(symbolIndices::get).collect(Collectors.toList())
+                ))
+                .collect(Collectors.toList());
+    }
+
+    public List<ActionApplication> fromCanonical(List<CanonicalStep> plan) {
+        return plan.stream()
+                .map(step -> new ActionApplication(
+                        schemes.get(step.getScheme()),
+                        step.getSymbols().stream().map(symbols::get).collect(Collectors.toList())
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Symbol> getCanonicalSymbolOrder(StripsPlanningTask task) {
+        Map<String, Set<InstancedPredicate>> parts = Maps.newLinkedHashMap();
+        parts.put(START, task.getStartingState());
+        parts.put(GOAL, task.getGoalFormula());
+        Map<Symbol, Integer> colors = ColorRefinement.refine(parts, Collections.emptySet());
+
+        List<Symbol> symbols = Lists.newArrayList(colors.keySet());
+        symbols.sort(Comparator.comparing((Symbol symbol) -> colors.get(symbol)).thenComparing(Symbol::getName));
+        return symbols;
+    }
+
+    private static String describe(ActionScheme scheme) {
+        List<String> variables = scheme.getPredicate().getVariables();
+
+        return String.format("%s/%d:%s:%s",
+                scheme.getPredicate().getType().getName(),
+                variables.size(),
+                describeConditions(scheme.getPreConditions(), variables),
+                describeConditions(scheme.getEffects(), variables));
+    }
+
+    private static String describeConditions(Set<Predicate> conditions, List<String> variables) {
+        // variables are replaced by their parameter position
+        return conditions.stream()
+                .map(condition -> String.format("%s%s(%s)",
+                        condition.isState() ? "+" : "-",
+                        condition.getType().getName(),
+                        StringUtils.join(condition.getVariables().stream().map(variables::indexOf).collect(Collectors.toList()), ",")))
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String describe(String part, Set<InstancedPredicate> state, Map<Symbol, Integer> symbolIndices) {
+        return part + ":" + state.stream()
+                .map(predicate -> String.format("%s%s(%s)",
+                        predicate.isState() ? "+" : "-",
+                        predicate.getType().getName(),
+                        StringUtils.join(predicate.getSymbols().stream().map(symbolIndices::get).collect(Collectors.toList()), ",")))
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+}
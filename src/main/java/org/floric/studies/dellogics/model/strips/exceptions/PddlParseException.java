@@ -0,0 +1,11 @@
+package org.floric.studies.dellogics.model.strips.exceptions;
+
+public class PddlParseException extends RuntimeException {
+    public PddlParseException(int line, String message) {
+        super(String.format("Line %d: %s", line, message));
+    }
+
+    public PddlParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
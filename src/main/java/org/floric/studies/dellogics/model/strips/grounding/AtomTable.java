@@ -0,0 +1,71 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.floric.studies.dellogics.model.strips.InstancedPredicate;
+import org.floric.studies.dellogics.model.strips.PredicateType;
+import org.floric.studies.dellogics.model.strips.Symbol;
+import org.floric.studies.dellogics.model.strips.exceptions.NoNegPredicatesAllowedException;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class AtomTable {
+
+    public static final int UNKNOWN_ATOM = -1;
+
+    private final Map<InstancedPredicate, Integer> ids = Maps.newHashMap();
+    private final List<InstancedPredicate> atoms = Lists.newArrayList();
+
+    public int getId(PredicateType type, List<Symbol> symbols) {
+        return ids.getOrDefault(new InstancedPredicate(type, symbols), UNKNOWN_ATOM);
+    }
+
+    public int getId(InstancedPredicate atom) {
+        return getId(atom.getType(), atom.getSymbols());
+    }
+
+    public int getOrCreateId(PredicateType type, List<Symbol> symbols) {
+        InstancedPredicate key = InstancedPredicate.of(type, symbols);
+
+        return ids.computeIfAbsent(key, atom -> {
+            atoms.add(atom);
+            return atoms.size() - 1;
+        });
+    }
+
+    public int getOrCreateId(InstancedPredicate atom) {
+        return getOrCreateId(atom.getType(), atom.getSymbols());
+    }
+
+    public InstancedPredicate getAtom(int id) {
+        return atoms.get(id);
+    }
+
+    public int size() {
+        return atoms.size();
+    }
+
+    public PackedState encode(Collection<InstancedPredicate> state) {
+        BitSet bits = new BitSet(atoms.size());
+
+        for (InstancedPredicate atom : state) {
+            if (!atom.isState()) {
+                throw new NoNegPredicatesAllowedException();
+            }
+            bits.set(getOrCreateId(atom));
+        }
+
+        return PackedState.of(bits);
+    }
+
+    public Set<InstancedPredicate> decode(PackedState state) {
+        return state.toBitSet().stream()
+                .mapToObj(atoms::get)
+                .collect(Collectors.toSet());
+    }
+}
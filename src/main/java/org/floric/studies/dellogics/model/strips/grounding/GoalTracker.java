@@ -0,0 +1,71 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import java.util.Arrays;
+import java.util.List;
+
+// derives the number of unsatisfied goals of a successor from its parent and the applied action
+public class GoalTracker {
+
+    private final int[] goalAtoms;
+    // per action the goal atoms in its add and delete effects, deletes which are added again are left out
+    private final int[][] goalAdds;
+    private final int[][] goalDeletes;
+
+    public GoalTracker(GroundedTask task) {
+        PackedState goal = task.getGoal();
+        this.goalAtoms = goal.toBitSet().stream().toArray();
+
+        List<GroundAction> actions = task.getActions();
+        this.goalAdds = new int[actions.size()][];
+        this.goalDeletes = new int[actions.size()][];
+
+        for (GroundAction action : actions) {
+            goalAdds[action.getId()] = Arrays.stream(action.getAddEffects())
+                    .filter(goal::contains)
+                    .distinct()
+                    .toArray();
+            goalDeletes[action.getId()] = Arrays.stream(action.getEffectiveDeleteEffects())
+                    .filter(goal::contains)
+                    .toArray();
+        }
+    }
+
+    public int count(PackedState state) {
+        if (state.getUnsatisfiedGoals() != PackedState.UNKNOWN_GOAL_COUNT) {
+            return state.getUnsatisfiedGoals();
+        }
+
+        int count = 0;
+        for (int atomId : goalAtoms) {
+            if (!state.contains(atomId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public PackedState track(PackedState state) {
+        return state.withUnsatisfiedGoals(count(state));
+    }
+
+    public int getSuccessorCount(PackedState parent, GroundAction action) {
+        int count = count(parent);
+
+        for (int atomId : goalAdds[action.getId()]) {
+            if (!parent.contains(atomId)) {
+                count--;
+            }
+        }
+        for (int atomId : goalDeletes[action.getId()]) {
+            if (parent.contains(atomId)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public PackedState apply(PackedState parent, GroundAction action) {
+        return action.apply(parent, getSuccessorCount(parent, action));
+    }
+}
@@ -0,0 +1,65 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+
+import java.util.Arrays;
+
+@Getter
+public class GroundAction {
+    private final int id;
+    private final ActionApplication application;
+
+    private final int[] preconditions;
+    private final int[] negativePreconditions;
+    private final int[] addEffects;
+    private final int[] deleteEffects;
+    // deletes which are not added again by the same action, each atom once. adds win when applying
+    private final int[] effectiveDeleteEffects;
+
+    private final PackedState preconditionMask;
+    private final PackedState negativePreconditionMask;
+    private final PackedState addMask;
+    private final PackedState deleteMask;
+    private final PackedState effectiveDeleteMask;
+
+    public GroundAction(int id, ActionApplication application, int[] preconditions, int[] negativePreconditions, int[] addEffects, int[] deleteEffects) {
+        this.id = id;
+        this.application = application;
+        this.preconditions = preconditions;
+        this.negativePreconditions = negativePreconditions;
+        this.addEffects = addEffects;
+        this.deleteEffects = deleteEffects;
+
+        this.preconditionMask = PackedState.of(preconditions);
+        this.negativePreconditionMask = PackedState.of(negativePreconditions);
+        this.addMask = PackedState.of(addEffects);
+        this.deleteMask = PackedState.of(deleteEffects);
+        this.effectiveDeleteEffects = Arrays.stream(deleteEffects)
+                .filter(atomId -> !addMask.contains(atomId))
+                .distinct()
+                .toArray();
+        this.effectiveDeleteMask = PackedState.of(effectiveDeleteEffects);
+    }
+
+    public boolean isApplicable(PackedState state) {
+        return state.containsAll(preconditionMask) && !state.intersects(negativePreconditionMask);
+    }
+
+    public PackedState apply(PackedState state) {
+        return state.apply(deleteMask, addMask);
+    }
+
+    public PackedState apply(PackedState state, int unsatisfiedGoals) {
+        return state.apply(deleteMask, addMask, unsatisfiedGoals);
+    }
+
+    public PackedState apply(PackedState state, int unsatisfiedGoals, long zobristHash) {
+        return state.apply(deleteMask, addMask, unsatisfiedGoals, zobristHash);
+    }
+
+    @Override
+    public String toString() {
+        return application.toString();
+    }
+}
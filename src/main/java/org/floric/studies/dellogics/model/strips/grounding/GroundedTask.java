@@ -0,0 +1,15 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class GroundedTask {
+    private final AtomTable atoms;
+    private final List<GroundAction> actions;
+    private final PackedState initialState;
+    private final PackedState goal;
+}
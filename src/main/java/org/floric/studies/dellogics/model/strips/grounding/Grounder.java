@@ -0,0 +1,147 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import org.floric.studies.dellogics.model.strips.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class Grounder {
+
+    public GroundedTask ground(StripsPlanningTask task) {
+        AtomTable atoms = new AtomTable();
+        PackedState initialState = atoms.encode(task.getStartingState());
+        PackedState goal = atoms.encode(task.getGoalFormula());
+
+        List<Symbol> symbols = Lists.newArrayList(getSymbols(task));
+        Set<PredicateType> staticTypes = getStaticPredicateTypes(task.getActions());
+
+        List<GroundAction> groundActions = Lists.newArrayList();
+        for (ActionScheme scheme : task.getActions()) {
+            // model errors are reported here, the ground actions don't check anything anymore
+            SchemeGrounding grounding = new SchemeGrounding(scheme.getCompiledScheme(), staticTypes, symbols, atoms, initialState, groundActions);
+            grounding.groundRec(0, new Symbol[grounding.scheme.getArity()]);
+        }
+
+        return new GroundedTask(atoms, ImmutableList.copyOf(groundActions), initialState, goal);
+    }
+
+    public static Set<PredicateType> getStaticPredicateTypes(Set<ActionScheme> actions) {
+        Set<PredicateType> changedTypes = actions.stream()
+                .flatMap(scheme -> scheme.getEffects().stream())
+                .map(Predicate::getType)
+                .collect(Collectors.toSet());
+
+        return actions.stream()
+                .flatMap(scheme -> scheme.getPreConditions().stream())
+                .map(Predicate::getType)
+                .filter(type -> !changedTypes.contains(type))
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Symbol> getSymbols(StripsPlanningTask task) {
+        return task.getStartingState().stream()
+                .flatMap(atom -> atom.getSymbols().stream())
+                .collect(Collectors.toCollection(Sets::newLinkedHashSet));
+    }
+
+    private static class SchemeGrounding {
+        private final CompiledActionScheme scheme;
+        private final List<Symbol> symbols;
+        private final AtomTable atoms;
+        private final PackedState initialState;
+        private final List<GroundAction> groundActions;
+
+        private final boolean[] isStatic;
+        // index of the variable after which a condition is fully bound
+        private final int[] lastBoundVariable;
+
+        SchemeGrounding(CompiledActionScheme scheme, Set<PredicateType> staticTypes, List<Symbol> symbols, AtomTable atoms, PackedState initialState, List<GroundAction> groundActions) {
+            this.scheme = scheme;
+            this.symbols = symbols;
+            this.atoms = atoms;
+            this.initialState = initialState;
+            this.groundActions = groundActions;
+
+            List<CompiledPredicate> conditions = scheme.getPreConditions();
+            this.isStatic = new boolean[conditions.size()];
+            this.lastBoundVariable = new int[conditions.size()];
+            for (int i = 0; i < conditions.size(); i++) {
+                isStatic[i] = staticTypes.contains(conditions.get(i).getType());
+                lastBoundVariable[i] = Arrays.stream(conditions.get(i).getVariableIndices()).max().orElse(-1);
+            }
+        }
+
+        void groundRec(int variableIndex, Symbol[] assignment) {
+            if (variableIndex == assignment.length) {
+                // conditions without any variable are checked once all of them are bound
+                if (isStaticConditionsValid(-1, assignment)) {
+                    groundActions.add(createGroundAction(assignment));
+                }
+                return;
+            }
+
+            for (Symbol symbol : symbols) {
+                assignment[variableIndex] = symbol;
+
+                // prune as soon as a static condition is fully bound and violated
+                if (isStaticConditionsValid(variableIndex, assignment)) {
+                    groundRec(variableIndex + 1, assignment);
+                }
+            }
+
+            assignment[variableIndex] = null;
+        }
+
+        private boolean isStaticConditionsValid(int boundVariable, Symbol[] assignment) {
+            List<Symbol> bound = Arrays.asList(assignment);
+
+            for (int i = 0; i < isStatic.length; i++) {
+                if (!isStatic[i] || lastBoundVariable[i] != boundVariable) {
+                    continue;
+                }
+
+                CompiledPredicate condition = scheme.getPreConditions().get(i);
+                int atomId = atoms.getId(condition.getType(), condition.bind(bound));
+                boolean isTrue = atomId != AtomTable.UNKNOWN_ATOM && initialState.contains(atomId);
+
+                if (isTrue != condition.isState()) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private GroundAction createGroundAction(Symbol[] assignment) {
+            List<Symbol> bound = ImmutableList.copyOf(assignment);
+            List<Integer> preconditions = Lists.newArrayList();
+            List<Integer> negativePreconditions = Lists.newArrayList();
+
+            // static conditions were already checked while grounding and are dropped
+            for (int i = 0; i < isStatic.length; i++) {
+                if (!isStatic[i]) {
+                    CompiledPredicate condition = scheme.getPreConditions().get(i);
+                    int atomId = atoms.getOrCreateId(condition.getType(), condition.bind(bound));
+                    (condition.isState() ? preconditions : negativePreconditions).add(atomId);
+                }
+            }
+
+            ActionApplication application = new ActionApplication(scheme.getScheme(), bound);
+            return new GroundAction(groundActions.size(), application,
+                    Ints.toArray(preconditions), Ints.toArray(negativePreconditions),
+                    toIds(scheme.getAddEffects(), bound), toIds(scheme.getDeleteEffects(), bound));
+        }
+
+        private int[] toIds(List<CompiledPredicate> predicates, List<Symbol> bound) {
+            return predicates.stream()
+                    .mapToInt(predicate -> atoms.getOrCreateId(predicate.getType(), predicate.bind(bound)))
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+public final class PackedState {
+
+    public static final int UNKNOWN_GOAL_COUNT = -1;
+    public static final long UNKNOWN_ZOBRIST_HASH = 0;
+
+    private static final long[] NO_WORDS = new long[0];
+
+    // trailing zero words are always trimmed so equal states have equal arrays
+    private final long[] words;
+    private final int hash;
+    // number of goal atoms missing in this state, tracked incrementally by the search and not part of equality
+    private final int unsatisfiedGoals;
+    // zobrist hash of the atoms, also tracked incrementally and not part of equality
+    private final long zobristHash;
+
+    private PackedState(long[] words, int unsatisfiedGoals, long zobristHash) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+        this.unsatisfiedGoals = unsatisfiedGoals;
+        this.zobristHash = zobristHash;
+    }
+
+    private PackedState(long[] words) {
+        this(words, UNKNOWN_GOAL_COUNT, UNKNOWN_ZOBRIST_HASH);
+    }
+
+    public static PackedState empty() {
+        return new PackedState(NO_WORDS);
+    }
+
+    public static PackedState of(BitSet bits) {
+        return new PackedState(bits.toLongArray());
+    }
+
+    public static PackedState of(long[] words) {
+        return new PackedState(trim(Arrays.copyOf(words, words.length)));
+    }
+
+    public static PackedState of(int... atomIds) {
+        BitSet bits = new BitSet();
+        for (int atomId : atomIds) {
+            bits.set(atomId);
+        }
+        return of(bits);
+    }
+
+    public boolean contains(int atomId) {
+        int wordIndex = atomId >>> 6;
+        return wordIndex < words.length && (words[wordIndex] & (1L << atomId)) != 0;
+    }
+
+    public boolean containsAll(PackedState other) {
+        if (other.words.length > words.length) {
+            return false;
+        }
+
+        for (int i = 0; i < other.words.length; i++) {
+            if ((other.words[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean intersects(PackedState other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public PackedState apply(PackedState deleted, PackedState added) {
+        return apply(deleted, added, UNKNOWN_GOAL_COUNT);
+    }
+
+    public PackedState apply(PackedState deleted, PackedState added, int unsatisfiedGoals) {
+        return apply(deleted, added, unsatisfiedGoals, UNKNOWN_ZOBRIST_HASH);
+    }
+
+    public PackedState apply(PackedState deleted, PackedState added, int unsatisfiedGoals, long zobristHash) {
+        long[] result = Arrays.copyOf(words, Math.max(words.length, added.words.length));
+
+        // deletes first, adds win if an atom is part of both
+        for (int i = 0; i < Math.min(result.length, deleted.words.length); i++) {
+            result[i] &= ~deleted.words[i];
+        }
+        for (int i = 0; i < added.words.length; i++) {
+            result[i] |= added.words[i];
+        }
+
+        return new PackedState(trim(result), unsatisfiedGoals, zobristHash);
+    }
+
+    public PackedState withUnsatisfiedGoals(int unsatisfiedGoals) {
+        return new PackedState(words, unsatisfiedGoals, zobristHash);
+    }
+
+    public PackedState withZobristHash(long zobristHash) {
+        return new PackedState(words, unsatisfiedGoals, zobristHash);
+    }
+
+    public int getUnsatisfiedGoals() {
+        return unsatisfiedGoals;
+    }
+
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public long getWord(int index) {
+        return index < words.length ? words[index] : 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public void forEachAtom(IntConsumer consumer) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                consumer.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words);
+    }
+
+    private static long[] trim(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PackedState)) {
+            return false;
+        }
+
+        PackedState otherState = (PackedState) other;
+        return hash == otherState.hash && Arrays.equals(words, otherState.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toBitSet().toString();
+    }
+}
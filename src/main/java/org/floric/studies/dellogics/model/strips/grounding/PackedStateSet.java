@@ -0,0 +1,158 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import lombok.Getter;
+import org.floric.studies.dellogics.model.search.ClosedSet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+// open addressing table of zobrist hashes and state bits, every slot is the hash followed by the words of one state
+public class PackedStateSet implements ClosedSet<PackedState> {
+
+    private static final long EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final ZobristHasher hasher;
+    private final int wordCount;
+    private final int slotSize;
+    // direct buffers keep the visited states out of the garbage collected heap
+    @Getter
+    private final boolean isOffHeap;
+
+    private LongBuffer table;
+    private int capacity;
+    private int size;
+
+    public PackedStateSet(ZobristHasher hasher, int atomCount, boolean isOffHeap) {
+        this.hasher = hasher;
+        this.wordCount = (atomCount + 63) >>> 6;
+        this.slotSize = wordCount + 1;
+        this.isOffHeap = isOffHeap;
+        this.capacity = INITIAL_CAPACITY;
+        this.table = allocate(capacity);
+    }
+
+    @Override
+    public boolean add(PackedState state) {
+        checkWordCount(state);
+
+        // stay below three quarters load, linear probing degrades fast above
+        if ((size + 1) * 4L > capacity * 3L) {
+            grow();
+        }
+
+        long hash = toStoredHash(hasher.hash(state));
+        int slot = findSlot(table, capacity, hash, state);
+        int offset = slot * slotSize;
+        if (table.get(offset) != EMPTY) {
+            return false;
+        }
+
+        table.put(offset, hash);
+        for (int i = 0; i < wordCount; i++) {
+            table.put(offset + 1 + i, state.getWord(i));
+        }
+        size++;
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(PackedState state) {
+        if (state.getWordCount() > wordCount) {
+            return false;
+        }
+
+        long hash = toStoredHash(hasher.hash(state));
+        return table.get(findSlot(table, capacity, hash, state) * slotSize) != EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long getMemoryBytes() {
+        return (long) capacity * slotSize * Long.BYTES;
+    }
+
+    private int findSlot(LongBuffer table, int capacity, long hash, PackedState state) {
+        // zobrist keys are random, so the low bits are already well distributed
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+
+        while (true) {
+            int offset = slot * slotSize;
+            long storedHash = table.get(offset);
+            if (storedHash == EMPTY || (storedHash == hash && isStoredAt(table, offset, state))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean isStoredAt(LongBuffer table, int offset, PackedState state) {
+        for (int i = 0; i < wordCount; i++) {
+            if (table.get(offset + 1 + i) != state.getWord(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        int newCapacity = capacity << 1;
+        LongBuffer newTable = allocate(newCapacity);
+
+        // hashes are stored, so the states are only moved and never hashed again
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slot * slotSize;
+            long hash = table.get(offset);
+            if (hash == EMPTY) {
+                continue;
+            }
+
+            int newOffset = findEmptySlot(newTable, newCapacity, hash) * slotSize;
+            for (int i = 0; i < slotSize; i++) {
+                newTable.put(newOffset + i, table.get(offset + i));
+            }
+        }
+
+        table = newTable;
+        capacity = newCapacity;
+    }
+
+    private int findEmptySlot(LongBuffer table, int capacity, long hash) {
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+
+        while (table.get(slot * slotSize) != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private LongBuffer allocate(int capacity) {
+        long longs = (long) capacity * slotSize;
+        if (longs * Long.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException(String.format("Closed set can't grow beyond %d states!", size));
+        }
+
+        if (isOffHeap) {
+            return ByteBuffer.allocateDirect((int) longs * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return LongBuffer.allocate((int) longs);
+    }
+
+    private void checkWordCount(PackedState state) {
+        if (state.getWordCount() > wordCount) {
+            throw new IllegalArgumentException(String.format("State %s contains atoms unknown to the closed set!", state));
+        }
+    }
+
+    private static long toStoredHash(long hash) {
+        // 0 marks empty slots, states with that hash share the slots of hash 1 and are told apart by their bits
+        return hash == EMPTY ? 1 : hash;
+    }
+}
@@ -0,0 +1,26 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+// sizes of a grounded task before and after each pass of the task reducer
+@Value
+@AllArgsConstructor
+public class ReductionReport {
+    private int atoms;
+    private int reachableAtoms;
+    private int keptAtoms;
+    private int actions;
+    private int reachableActions;
+    private int keptActions;
+    // false if a goal atom can't even be reached in the delete relaxation, the task is unsolvable then
+    private boolean goalReachable;
+
+    public double getEliminatedAtomRatio() {
+        return atoms == 0 ? 0 : 1 - (double) keptAtoms / atoms;
+    }
+
+    public double getEliminatedActionRatio() {
+        return actions == 0 ? 0 : 1 - (double) keptActions / actions;
+    }
+}
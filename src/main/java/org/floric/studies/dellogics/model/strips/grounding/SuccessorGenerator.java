@@ -0,0 +1,148 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// decision tree over precondition atoms, only the branches matching a state are visited
+public class SuccessorGenerator {
+
+    private static final int NO_ATOM = -1;
+
+    private final List<GroundAction> actions;
+    // preconditions of every action sorted by atom, encoded as atom << 1 | (negative ? 1 : 0)
+    private final int[][] literals;
+    private final Node root;
+
+    public SuccessorGenerator(List<GroundAction> actions) {
+        this.actions = actions;
+        this.literals = new int[actions.size()][];
+
+        List<Entry> entries = Lists.newArrayListWithCapacity(actions.size());
+        for (GroundAction action : actions) {
+            literals[action.getId()] = toLiterals(action);
+            entries.add(new Entry(action.getId(), 0));
+        }
+
+        this.root = build(entries);
+    }
+
+    public List<GroundAction> getApplicableActions(PackedState state) {
+        List<GroundAction> result = Lists.newArrayList();
+        forEachApplicableAction(state, result::add);
+        return result;
+    }
+
+    public void forEachApplicableAction(PackedState state, Consumer<GroundAction> consumer) {
+        visit(root, state, consumer);
+    }
+
+    private void visit(Node node, PackedState state, Consumer<GroundAction> consumer) {
+        // the dont care chain is walked iteratively, recursion depth is bounded by the precondition count
+        for (; node != null; node = node.next) {
+            for (int actionId : node.applicable) {
+                consumer.accept(actions.get(actionId));
+            }
+
+            if (node.atom != NO_ATOM) {
+                Node child = state.contains(node.atom) ? node.ifTrue : node.ifFalse;
+                if (child != null) {
+                    visit(child, state, consumer);
+                }
+            }
+        }
+    }
+
+    private Node build(List<Entry> entries) {
+        Node head = null;
+        Node tail = null;
+        List<Entry> remaining = entries;
+
+        while (!remaining.isEmpty()) {
+            List<Integer> applicable = Lists.newArrayList();
+            List<Entry> open = Lists.newArrayList();
+            for (Entry entry : remaining) {
+                if (entry.cursor == literals[entry.actionId].length) {
+                    applicable.add(entry.actionId);
+                } else {
+                    open.add(entry);
+                }
+            }
+
+            Node node = new Node();
+            node.applicable = Ints.toArray(applicable);
+            if (head == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+
+            if (open.isEmpty()) {
+                break;
+            }
+
+            // branch on the smallest atom still open in any action
+            int atom = Integer.MAX_VALUE;
+            for (Entry entry : open) {
+                atom = Math.min(atom, literals[entry.actionId][entry.cursor] >>> 1);
+            }
+
+            List<Entry> ifTrue = Lists.newArrayList();
+            List<Entry> ifFalse = Lists.newArrayList();
+            List<Entry> dontCare = Lists.newArrayList();
+            for (Entry entry : open) {
+                int literal = literals[entry.actionId][entry.cursor];
+                if (literal >>> 1 != atom) {
+                    dontCare.add(entry);
+                } else if ((literal & 1) == 0) {
+                    ifTrue.add(new Entry(entry.actionId, entry.cursor + 1));
+                } else {
+                    ifFalse.add(new Entry(entry.actionId, entry.cursor + 1));
+                }
+            }
+
+            node.atom = atom;
+            node.ifTrue = ifTrue.isEmpty() ? null : build(ifTrue);
+            node.ifFalse = ifFalse.isEmpty() ? null : build(ifFalse);
+            remaining = dontCare;
+        }
+
+        return head;
+    }
+
+    private static int[] toLiterals(GroundAction action) {
+        int[] result = new int[action.getPreconditions().length + action.getNegativePreconditions().length];
+        int index = 0;
+        for (int atomId : action.getPreconditions()) {
+            result[index++] = atomId << 1;
+        }
+        for (int atomId : action.getNegativePreconditions()) {
+            result[index++] = atomId << 1 | 1;
+        }
+
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static class Entry {
+        private final int actionId;
+        private final int cursor;
+
+        Entry(int actionId, int cursor) {
+            this.actionId = actionId;
+            this.cursor = cursor;
+        }
+    }
+
+    private static class Node {
+        private int[] applicable;
+        private int atom = NO_ATOM;
+        private Node ifTrue;
+        private Node ifFalse;
+        private Node next;
+    }
+}
@@ -0,0 +1,199 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.primitives.Ints;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+// shrinks a grounded task before the search. a forward pass keeps what is reachable in the delete relaxation,
+// a backward pass from the goal keeps what can still help reaching it. every optimal plan survives both passes
+public class TaskReducer {
+
+    @Getter
+    private ReductionReport report;
+
+    public GroundedTask reduce(GroundedTask task) {
+        List<GroundAction> actions = task.getActions();
+        int atomCount = task.getAtoms().size();
+
+        boolean[] reachableAtoms = new boolean[atomCount];
+        boolean[] reachableActions = new boolean[actions.size()];
+        findReachable(task, reachableAtoms, reachableActions);
+
+        boolean[] relevantAtoms = new boolean[atomCount];
+        boolean[] relevantActions = new boolean[actions.size()];
+        findRelevant(task, reachableActions, relevantAtoms, relevantActions);
+
+        // unreachable goal atoms are kept, so the reduced task stays unsolvable
+        boolean[] isGoal = new boolean[atomCount];
+        task.getGoal().forEachAtom(atomId -> isGoal[atomId] = true);
+
+        AtomTable atoms = new AtomTable();
+        int[] newIds = new int[atomCount];
+        for (int atomId = 0; atomId < atomCount; atomId++) {
+            boolean isKept = relevantAtoms[atomId] && (reachableAtoms[atomId] || isGoal[atomId]);
+            newIds[atomId] = isKept ? atoms.getOrCreateId(task.getAtoms().getAtom(atomId)) : AtomTable.UNKNOWN_ATOM;
+        }
+
+        List<GroundAction> keptActions = Lists.newArrayList();
+        for (GroundAction action : actions) {
+            if (relevantActions[action.getId()]) {
+                keptActions.add(new GroundAction(keptActions.size(), action.getApplication(),
+                        remap(action.getPreconditions(), newIds),
+                        remap(action.getNegativePreconditions(), newIds),
+                        remap(action.getAddEffects(), newIds),
+                        remap(action.getDeleteEffects(), newIds)));
+            }
+        }
+
+        boolean isGoalReachable = true;
+        for (int atomId = 0; atomId < atomCount; atomId++) {
+            isGoalReachable &= !isGoal[atomId] || reachableAtoms[atomId];
+        }
+
+        report = new ReductionReport(atomCount, count(reachableAtoms), atoms.size(),
+                actions.size(), count(reachableActions), keptActions.size(), isGoalReachable);
+
+        return new GroundedTask(atoms, ImmutableList.copyOf(keptActions),
+                remap(task.getInitialState(), newIds), remap(task.getGoal(), newIds));
+    }
+
+    private void findReachable(GroundedTask task, boolean[] reachableAtoms, boolean[] reachableActions) {
+        // negative preconditions are assumed to hold, so an action only waits for its positive ones
+        List<GroundAction> actions = task.getActions();
+        List<List<Integer>> waitingActions = createLists(reachableAtoms.length);
+        int[] missingPreconditions = new int[actions.size()];
+        Deque<Integer> queue = Queues.newArrayDeque();
+
+        for (GroundAction action : actions) {
+            int[] preconditions = Arrays.stream(action.getPreconditions()).distinct().toArray();
+            missingPreconditions[action.getId()] = preconditions.length;
+            for (int atomId : preconditions) {
+                waitingActions.get(atomId).add(action.getId());
+            }
+            if (preconditions.length == 0) {
+                reach(action, reachableAtoms, reachableActions, queue);
+            }
+        }
+
+        task.getInitialState().forEachAtom(atomId -> {
+            if (!reachableAtoms[atomId]) {
+                reachableAtoms[atomId] = true;
+                queue.add(atomId);
+            }
+        });
+
+        while (!queue.isEmpty()) {
+            for (int actionId : waitingActions.get(queue.poll())) {
+                if (--missingPreconditions[actionId] == 0) {
+                    reach(actions.get(actionId), reachableAtoms, reachableActions, queue);
+                }
+            }
+        }
+    }
+
+    private void reach(GroundAction action, boolean[] reachableAtoms, boolean[] reachableActions, Deque<Integer> queue) {
+        reachableActions[action.getId()] = true;
+
+        for (int atomId : action.getAddEffects()) {
+            if (!reachableAtoms[atomId]) {
+                reachableAtoms[atomId] = true;
+                queue.add(atomId);
+            }
+        }
+    }
+
+    private void findRelevant(GroundedTask task, boolean[] reachableActions, boolean[] relevantAtoms, boolean[] relevantActions) {
+        // atoms can matter as true or, for negative preconditions, as false. adding or deleting them then matters
+        List<GroundAction> actions = task.getActions();
+        int atomCount = relevantAtoms.length;
+        List<List<Integer>> adders = createLists(atomCount);
+        List<List<Integer>> deleters = createLists(atomCount);
+
+        for (GroundAction action : actions) {
+            if (!reachableActions[action.getId()]) {
+                continue;
+            }
+
+            Arrays.stream(action.getAddEffects()).distinct().forEach(atomId -> adders.get(atomId).add(action.getId()));
+            Arrays.stream(action.getEffectiveDeleteEffects()).forEach(atomId -> deleters.get(atomId).add(action.getId()));
+        }
+
+        // literals are encoded as atom << 1 | (needed false ? 1 : 0)
+        boolean[] relevantLiterals = new boolean[atomCount * 2];
+        Deque<Integer> queue = Queues.newArrayDeque();
+        task.getGoal().forEachAtom(atomId -> addLiteral(atomId << 1, relevantLiterals, queue));
+
+        while (!queue.isEmpty()) {
+            int literal = queue.poll();
+            List<Integer> supporters = (literal & 1) == 0 ? adders.get(literal >>> 1) : deleters.get(literal >>> 1);
+
+            for (int actionId : supporters) {
+                if (relevantActions[actionId]) {
+                    continue;
+                }
+
+                GroundAction action = actions.get(actionId);
+                relevantActions[actionId] = true;
+                for (int atomId : action.getPreconditions()) {
+                    addLiteral(atomId << 1, relevantLiterals, queue);
+                }
+                for (int atomId : action.getNegativePreconditions()) {
+                    addLiteral(atomId << 1 | 1, relevantLiterals, queue);
+                }
+            }
+        }
+
+        for (int atomId = 0; atomId < atomCount; atomId++) {
+            relevantAtoms[atomId] = relevantLiterals[atomId << 1] || relevantLiterals[atomId << 1 | 1];
+        }
+    }
+
+    private static void addLiteral(int literal, boolean[] relevantLiterals, Deque<Integer> queue) {
+        if (!relevantLiterals[literal]) {
+            relevantLiterals[literal] = true;
+            queue.add(literal);
+        }
+    }
+
+    private static int[] remap(int[] atomIds, int[] newIds) {
+        // atoms which were dropped are never true or never matter, so conditions and effects on them go as well
+        return Arrays.stream(atomIds)
+                .map(atomId -> newIds[atomId])
+                .filter(atomId -> atomId != AtomTable.UNKNOWN_ATOM)
+                .toArray();
+    }
+
+    private static PackedState remap(PackedState state, int[] newIds) {
+        List<Integer> atomIds = Lists.newArrayList();
+        state.forEachAtom(atomId -> {
+            if (newIds[atomId] != AtomTable.UNKNOWN_ATOM) {
+                atomIds.add(newIds[atomId]);
+            }
+        });
+        return PackedState.of(Ints.toArray(atomIds));
+    }
+
+    private static List<List<Integer>> createLists(int count) {
+        List<List<Integer>> result = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            result.add(Lists.newArrayList());
+        }
+        return result;
+    }
+
+    private static int count(boolean[] values) {
+        int count = 0;
+        for (boolean value : values) {
+            if (value) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,65 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// 64 bit hash of a state as xor of one random key per atom, successors only flip the keys of changed atoms
+public class ZobristHasher {
+
+    // fixed seed so equal tasks hash equally in every run
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private final long[] keys;
+    // per action the atoms of its add effects, each atom once
+    private final int[][] adds;
+
+    public ZobristHasher(GroundedTask task) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.keys = new long[task.getAtoms().size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+
+        List<GroundAction> actions = task.getActions();
+        this.adds = new int[actions.size()][];
+
+        for (GroundAction action : actions) {
+            adds[action.getId()] = Arrays.stream(action.getAddEffects())
+                    .distinct()
+                    .toArray();
+        }
+    }
+
+    public long hash(PackedState state) {
+        // a real hash of 0 can't be told apart from an unknown one, it is just computed again
+        if (state.getZobristHash() != PackedState.UNKNOWN_ZOBRIST_HASH) {
+            return state.getZobristHash();
+        }
+
+        long[] hash = {0};
+        state.forEachAtom(atomId -> hash[0] ^= keys[atomId]);
+        return hash[0];
+    }
+
+    public PackedState track(PackedState state) {
+        return state.withZobristHash(hash(state));
+    }
+
+    public long getSuccessorHash(PackedState parent, GroundAction action) {
+        long hash = hash(parent);
+
+        for (int atomId : adds[action.getId()]) {
+            if (!parent.contains(atomId)) {
+                hash ^= keys[atomId];
+            }
+        }
+        for (int atomId : action.getEffectiveDeleteEffects()) {
+            if (parent.contains(atomId)) {
+                hash ^= keys[atomId];
+            }
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,27 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import org.floric.studies.dellogics.model.search.Heuristic;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+public class AdditiveHeuristic implements Heuristic<PackedState> {
+
+    private final RelaxedExploration exploration;
+
+    public AdditiveHeuristic(GroundedTask task) {
+        this.exploration = new RelaxedExploration(task, true);
+    }
+
+    @Override
+    public int estimate(PackedState state) {
+        if (!exploration.explore(state)) {
+            return DEAD_END;
+        }
+
+        int result = 0;
+        for (int atomId : exploration.getGoal()) {
+            result += exploration.getAtomCost(atomId);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import java.util.Arrays;
+
+// binary min heap of (cost, atom) pairs packed into longs to avoid boxing
+class AtomQueue {
+    private long[] heap = new long[64];
+    private int size;
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int cost, int atomId) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+
+        long entry = ((long) cost << 32) | atomId;
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    long pop() {
+        long result = heap[0];
+        long last = heap[--size];
+
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = last;
+
+        return result;
+    }
+
+    static int cost(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int atomId(long entry) {
+        return (int) entry;
+    }
+}
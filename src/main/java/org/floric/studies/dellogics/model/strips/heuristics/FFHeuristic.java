@@ -0,0 +1,60 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import org.floric.studies.dellogics.model.search.Heuristic;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.BitSet;
+
+public class FFHeuristic implements Heuristic<PackedState> {
+
+    private final RelaxedExploration exploration;
+    private final BitSet markedAtoms;
+    private final BitSet relaxedPlan;
+
+    public FFHeuristic(GroundedTask task) {
+        this.exploration = new RelaxedExploration(task, true);
+        this.markedAtoms = new BitSet(task.getAtoms().size());
+        this.relaxedPlan = new BitSet(task.getActions().size());
+    }
+
+    @Override
+    public int estimate(PackedState state) {
+        if (!exploration.explore(state)) {
+            return DEAD_END;
+        }
+
+        markedAtoms.clear();
+        relaxedPlan.clear();
+
+        // collect the best supporters of all goals backwards, every action is only counted once
+        for (int atomId : exploration.getGoal()) {
+            markSupporters(atomId);
+        }
+
+        return relaxedPlan.cardinality();
+    }
+
+    public BitSet getRelaxedPlan() {
+        return relaxedPlan;
+    }
+
+    private void markSupporters(int atomId) {
+        if (markedAtoms.get(atomId)) {
+            return;
+        }
+        markedAtoms.set(atomId);
+
+        int supporter = exploration.getSupporter(atomId);
+        if (exploration.getAtomCost(atomId) == 0 || supporter == RelaxedExploration.NO_SUPPORTER || relaxedPlan.get(supporter)) {
+            return;
+        }
+
+        relaxedPlan.set(supporter);
+        GroundAction action = exploration.getActions().get(supporter);
+        for (int preconditionId : action.getPreconditions()) {
+            markSupporters(preconditionId);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import org.floric.studies.dellogics.model.search.Heuristic;
+import org.floric.studies.dellogics.model.strips.grounding.GoalTracker;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+// reuses the goal count tracked during search, not admissible as one action can reach several goals
+public class GoalCountHeuristic implements Heuristic<PackedState> {
+
+    private final GoalTracker goalTracker;
+
+    public GoalCountHeuristic(GroundedTask task) {
+        this.goalTracker = new GoalTracker(task);
+    }
+
+    @Override
+    public int estimate(PackedState state) {
+        return goalTracker.count(state);
+    }
+}
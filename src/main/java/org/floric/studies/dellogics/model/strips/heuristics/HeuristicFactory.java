@@ -0,0 +1,11 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import org.floric.studies.dellogics.model.search.Heuristic;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+@FunctionalInterface
+public interface HeuristicFactory {
+    // heuristics keep per evaluation buffers, so every search gets its own instance
+    Heuristic<PackedState> create(GroundedTask task);
+}
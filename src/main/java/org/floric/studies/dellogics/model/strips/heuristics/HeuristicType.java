@@ -0,0 +1,39 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import org.floric.studies.dellogics.model.search.Heuristic;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+public enum HeuristicType implements HeuristicFactory {
+    BLIND {
+        @Override
+        public Heuristic<PackedState> create(GroundedTask task) {
+            return Heuristic.blind();
+        }
+    },
+    GOAL_COUNT {
+        @Override
+        public Heuristic<PackedState> create(GroundedTask task) {
+            return new GoalCountHeuristic(task);
+        }
+    },
+    // admissible, use with A*
+    MAX {
+        @Override
+        public Heuristic<PackedState> create(GroundedTask task) {
+            return new MaxHeuristic(task);
+        }
+    },
+    ADDITIVE {
+        @Override
+        public Heuristic<PackedState> create(GroundedTask task) {
+            return new AdditiveHeuristic(task);
+        }
+    },
+    FF {
+        @Override
+        public Heuristic<PackedState> create(GroundedTask task) {
+            return new FFHeuristic(task);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.floric.studies.dellogics.model.strips.heuristics;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.Arrays;
+import java.util.List;
+
+// generalized dijkstra over the delete relaxation, actions are triggered by counting their open preconditions
+public class RelaxedExploration {
+
+    public static final int UNREACHED = Integer.MAX_VALUE;
+    public static final int NO_SUPPORTER = -1;
+
+    private final boolean isAdditive;
+    private final List<GroundAction> actions;
+    private final int[] goal;
+    private final boolean[] isGoalAtom;
+
+    // atom id -> ids of the actions having it as precondition
+    private final int[][] preconditionOf;
+    private final int[] preconditionCount;
+
+    private final int[] atomCosts;
+    private final int[] supporters;
+    private final int[] unsatisfiedPreconditions;
+    private final int[] actionCosts;
+    private final AtomQueue queue = new AtomQueue();
+
+    public RelaxedExploration(GroundedTask task, boolean isAdditive) {
+        this.isAdditive = isAdditive;
+        this.actions = task.getActions();
+        this.goal = toIds(task.getGoal());
+
+        int atomCount = task.getAtoms().size();
+        isGoalAtom = new boolean[atomCount];
+        for (int atomId : goal) {
+            isGoalAtom[atomId] = true;
+        }
+
+        List<List<Integer>> preconditionLists = Lists.newArrayListWithCapacity(atomCount);
+        for (int i = 0; i < atomCount; i++) {
+            preconditionLists.add(Lists.newArrayList());
+        }
+
+        preconditionCount = new int[actions.size()];
+        for (GroundAction action : actions) {
+            preconditionCount[action.getId()] = action.getPreconditions().length;
+            for (int atomId : action.getPreconditions()) {
+                preconditionLists.get(atomId).add(action.getId());
+            }
+        }
+
+        preconditionOf = preconditionLists.stream().map(Ints::toArray).toArray(int[][]::new);
+        atomCosts = new int[atomCount];
+        supporters = new int[atomCount];
+        unsatisfiedPreconditions = new int[actions.size()];
+        actionCosts = new int[actions.size()];
+    }
+
+    public boolean explore(PackedState state) {
+        if (goal.length == 0) {
+            return true;
+        }
+
+        Arrays.fill(atomCosts, UNREACHED);
+        Arrays.fill(supporters, NO_SUPPORTER);
+        System.arraycopy(preconditionCount, 0, unsatisfiedPreconditions, 0, preconditionCount.length);
+        Arrays.fill(actionCosts, 0);
+        queue.clear();
+
+        state.forEachAtom(atomId -> {
+            atomCosts[atomId] = 0;
+            queue.push(0, atomId);
+        });
+
+        for (GroundAction action : actions) {
+            if (preconditionCount[action.getId()] == 0) {
+                applyAction(action.getId());
+            }
+        }
+
+        int openGoals = goal.length;
+        while (!queue.isEmpty()) {
+            long entry = queue.pop();
+            int atomId = AtomQueue.atomId(entry);
+            int cost = AtomQueue.cost(entry);
+
+            // outdated entry, the atom was already reached cheaper
+            if (cost > atomCosts[atomId]) {
+                continue;
+            }
+
+            if (isGoalAtom[atomId] && --openGoals == 0) {
+                return true;
+            }
+
+            for (int actionId : preconditionOf[atomId]) {
+                actionCosts[actionId] = isAdditive ? actionCosts[actionId] + cost : Math.max(actionCosts[actionId], cost);
+
+                if (--unsatisfiedPreconditions[actionId] == 0) {
+                    applyAction(actionId);
+                }
+            }
+        }
+
+        return openGoals == 0;
+    }
+
+    private void applyAction(int actionId) {
+        int cost = actionCosts[actionId] + 1;
+
+        for (int atomId : actions.get(actionId).getAddEffects()) {
+            if (cost < atomCosts[atomId]) {
+                atomCosts[atomId] = cost;
+                supporters[atomId] = actionId;
+                queue.push(cost, atomId);
+            }
+        }
+    }
+
+    public int getAtomCost(int atomId) {
+        return atomCosts[atomId];
+    }
+
+    public int getSupporter(int atomId) {
+        return supporters[atomId];
+    }
+
+    public int[] getGoal() {
+        return goal;
+    }
+
+    public List<GroundAction> getActions() {
+        return actions;
+    }
+
+    private static int[] toIds(PackedState state) {
+        return state.toBitSet().stream().toArray();
+    }
+}
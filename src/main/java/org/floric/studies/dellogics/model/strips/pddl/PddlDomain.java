@@ -0,0 +1,21 @@
+package org.floric.studies.dellogics.model.strips.pddl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.ActionScheme;
+import org.floric.studies.dellogics.model.strips.PredicateType;
+import org.floric.studies.dellogics.model.strips.Symbol;
+
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class PddlDomain {
+    private final String name;
+    private final Map<String, PredicateType> predicates;
+    // type name -> name of its parent type
+    private final Map<String, String> supertypes;
+    private final Map<Symbol, String> constants;
+    private final Set<ActionScheme> actions;
+}
@@ -0,0 +1,308 @@
+package org.floric.studies.dellogics.model.strips.pddl;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.*;
+import org.floric.studies.dellogics.model.strips.exceptions.PddlParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// recursive descent parser for the STRIPS subset of PDDL with negative preconditions and typing,
+// objects are created while reading the token stream without an intermediate syntax tree
+public class PddlParser {
+
+    private static final String ROOT_TYPE = "object";
+    private static final String TYPE_PREDICATE_PREFIX = "is-";
+
+    private final Map<String, Symbol> symbols = Maps.newHashMap();
+    private final Map<String, PredicateType> typePredicates = Maps.newHashMap();
+
+    public static StripsPlanningTask load(Path domainFile, Path problemFile) throws IOException {
+        PddlParser parser = new PddlParser();
+
+        try (Reader domainReader = Files.newBufferedReader(domainFile, StandardCharsets.UTF_8);
+             Reader problemReader = Files.newBufferedReader(problemFile, StandardCharsets.UTF_8)) {
+            PddlDomain domain = parser.parseDomain(domainReader);
+            return parser.parseProblem(domain, problemReader);
+        }
+    }
+
+    public PddlDomain parseDomain(Reader reader) {
+        PddlTokenizer tokenizer = new PddlTokenizer(reader);
+        String name = parseHeader(tokenizer, "domain");
+
+        Map<String, PredicateType> predicates = Maps.newHashMap();
+        Map<String, String> supertypes = Maps.newHashMap();
+        Map<Symbol, String> constants = Maps.newLinkedHashMap();
+        Set<ActionScheme> actions = Sets.newHashSet();
+
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            tokenizer.expect(PddlTokenizer.OPEN);
+            String section = tokenizer.next();
+
+            switch (section) {
+                case ":types":
+                    parseTypedList(tokenizer).forEach(supertypes::put);
+                    break;
+                case ":constants":
+                    parseTypedList(tokenizer).forEach((constant, type) -> constants.put(getSymbol(constant), type));
+                    break;
+                case ":predicates":
+                    while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+                        tokenizer.expect(PddlTokenizer.OPEN);
+                        String predicateName = tokenizer.next();
+                        predicates.put(predicateName, new PredicateType(predicateName, parseTypedList(tokenizer).size()));
+                    }
+                    tokenizer.expect(PddlTokenizer.CLOSE);
+                    break;
+                case ":action":
+                    actions.add(parseAction(tokenizer, predicates));
+                    break;
+                default:
+                    // requirements and other unused sections
+                    tokenizer.skipList();
+            }
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        return new PddlDomain(name, predicates, supertypes, constants, actions);
+    }
+
+    public StripsPlanningTask parseProblem(PddlDomain domain, Reader reader) {
+        PddlTokenizer tokenizer = new PddlTokenizer(reader);
+        parseHeader(tokenizer, "problem");
+
+        IndexedState.Builder startingState = IndexedState.builder();
+        IndexedState.Builder goalFormula = IndexedState.builder();
+        domain.getConstants().forEach((constant, type) -> addTypeFacts(startingState, constant, type, domain.getSupertypes()));
+
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            tokenizer.expect(PddlTokenizer.OPEN);
+            String section = tokenizer.next();
+
+            switch (section) {
+                case ":domain":
+                    String domainName = tokenizer.next();
+                    if (!domainName.equals(domain.getName())) {
+                        throw new PddlParseException(tokenizer.getLine(), String.format("Problem is defined for domain %s, not %s!", domainName, domain.getName()));
+                    }
+                    tokenizer.expect(PddlTokenizer.CLOSE);
+                    break;
+                case ":objects":
+                    parseTypedList(tokenizer).forEach((object, type) -> addTypeFacts(startingState, getSymbol(object), type, domain.getSupertypes()));
+                    break;
+                case ":init":
+                    // facts go straight into the state, there is no list of parsed facts in between
+                    while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+                        startingState.add(parseGroundAtom(tokenizer, domain));
+                    }
+                    tokenizer.expect(PddlTokenizer.CLOSE);
+                    break;
+                case ":goal":
+                    parseGoal(tokenizer, domain, goalFormula);
+                    tokenizer.expect(PddlTokenizer.CLOSE);
+                    break;
+                default:
+                    tokenizer.skipList();
+            }
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        return new StripsPlanningTask(domain.getActions(), startingState.build(), goalFormula.build());
+    }
+
+    private String parseHeader(PddlTokenizer tokenizer, String kind) {
+        tokenizer.expect(PddlTokenizer.OPEN);
+        tokenizer.expect("define");
+        tokenizer.expect(PddlTokenizer.OPEN);
+        tokenizer.expect(kind);
+        String name = tokenizer.next();
+        tokenizer.expect(PddlTokenizer.CLOSE);
+        return name;
+    }
+
+    // reads "a b - type c" up to and including the closing parenthesis, untyped names get the root type
+    private Map<String, String> parseTypedList(PddlTokenizer tokenizer) {
+        Map<String, String> result = Maps.newLinkedHashMap();
+        List<String> pending = new ArrayList<>();
+
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            String token = tokenizer.next();
+
+            if (token.equals("-")) {
+                String type = tokenizer.next();
+                if (type.equals(PddlTokenizer.OPEN)) {
+                    throw new PddlParseException(tokenizer.getLine(), "Either types are not supported!");
+                }
+                pending.forEach(name -> result.put(name, type));
+                pending.clear();
+            } else if (token.equals(PddlTokenizer.OPEN)) {
+                throw new PddlParseException(tokenizer.getLine(), "Unexpected list in typed list!");
+            } else {
+                pending.add(token);
+            }
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        pending.forEach(name -> result.put(name, ROOT_TYPE));
+        return result;
+    }
+
+    private ActionScheme parseAction(PddlTokenizer tokenizer, Map<String, PredicateType> predicates) {
+        String name = tokenizer.next();
+        Map<String, String> parameters = Maps.newLinkedHashMap();
+        Set<Predicate> preConditions = Sets.newHashSet();
+        Set<Predicate> effects = Sets.newHashSet();
+
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            String key = tokenizer.next();
+
+            switch (key) {
+                case ":parameters":
+                    tokenizer.expect(PddlTokenizer.OPEN);
+                    parameters = parseTypedList(tokenizer);
+                    break;
+                case ":precondition":
+                    parseFormula(tokenizer, predicates, parameters.keySet(), preConditions);
+                    break;
+                case ":effect":
+                    parseFormula(tokenizer, predicates, parameters.keySet(), effects);
+                    break;
+                default:
+                    throw new PddlParseException(tokenizer.getLine(), String.format("Unknown action part %s!", key));
+            }
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        // typed parameters become static unary preconditions
+        parameters.forEach((parameter, type) -> {
+            if (!type.equals(ROOT_TYPE)) {
+                preConditions.add(new Predicate(getTypePredicate(type), parameter));
+            }
+        });
+
+        String[] variables = parameters.keySet().toArray(new String[0]);
+        return new ActionScheme(new Predicate(new PredicateType(name, variables.length), variables), preConditions, effects);
+    }
+
+    private void parseFormula(PddlTokenizer tokenizer, Map<String, PredicateType> predicates, Set<String> parameters, Set<Predicate> target) {
+        tokenizer.expect(PddlTokenizer.OPEN);
+        String head = tokenizer.next();
+
+        switch (head) {
+            case PddlTokenizer.CLOSE:
+                // empty formula
+                return;
+            case "and":
+                while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+                    parseFormula(tokenizer, predicates, parameters, target);
+                }
+                tokenizer.expect(PddlTokenizer.CLOSE);
+                return;
+            case "not":
+                tokenizer.expect(PddlTokenizer.OPEN);
+                target.add(parseLiteral(tokenizer, tokenizer.next(), false, predicates, parameters));
+                tokenizer.expect(PddlTokenizer.CLOSE);
+                return;
+            case "=":
+            case "or":
+            case "imply":
+            case "exists":
+            case "forall":
+            case "when":
+                throw new PddlParseException(tokenizer.getLine(), String.format("%s is not part of the supported STRIPS subset!", head));
+            default:
+                target.add(parseLiteral(tokenizer, head, true, predicates, parameters));
+        }
+    }
+
+    private Predicate parseLiteral(PddlTokenizer tokenizer, String name, boolean state, Map<String, PredicateType> predicates, Set<String> parameters) {
+        PredicateType type = getPredicateType(tokenizer, name, predicates);
+        List<String> variables = new ArrayList<>(type.getVariablesCount());
+
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            String variable = tokenizer.next();
+            if (!parameters.contains(variable)) {
+                throw new PddlParseException(tokenizer.getLine(), String.format("%s is no parameter, constants in actions are not supported!", variable));
+            }
+            variables.add(variable);
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        checkArity(tokenizer, type, variables.size());
+        return new Predicate(type, state, variables.toArray(new String[0]));
+    }
+
+    private void parseGoal(PddlTokenizer tokenizer, PddlDomain domain, IndexedState.Builder goalFormula) {
+        tokenizer.expect(PddlTokenizer.OPEN);
+        if (tokenizer.isNext("and")) {
+            tokenizer.next();
+            while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+                goalFormula.add(parseGroundAtom(tokenizer, domain));
+            }
+            tokenizer.expect(PddlTokenizer.CLOSE);
+        } else {
+            goalFormula.add(parseGroundAtomBody(tokenizer, domain));
+        }
+    }
+
+    private InstancedPredicate parseGroundAtom(PddlTokenizer tokenizer, PddlDomain domain) {
+        tokenizer.expect(PddlTokenizer.OPEN);
+        return parseGroundAtomBody(tokenizer, domain);
+    }
+
+    private InstancedPredicate parseGroundAtomBody(PddlTokenizer tokenizer, PddlDomain domain) {
+        String name = tokenizer.next();
+        if (name.equals("not") || name.equals("=")) {
+            throw new PddlParseException(tokenizer.getLine(), String.format("%s is not allowed in init and goal!", name));
+        }
+
+        PredicateType type = getPredicateType(tokenizer, name, domain.getPredicates());
+        List<Symbol> arguments = new ArrayList<>(type.getVariablesCount());
+        while (!tokenizer.isNext(PddlTokenizer.CLOSE)) {
+            arguments.add(getSymbol(tokenizer.next()));
+        }
+        tokenizer.expect(PddlTokenizer.CLOSE);
+
+        checkArity(tokenizer, type, arguments.size());
+        return InstancedPredicate.of(type, arguments);
+    }
+
+    private void addTypeFacts(IndexedState.Builder state, Symbol symbol, String type, Map<String, String> supertypes) {
+        // every object is part of its type and all supertypes, so it is known as symbol for grounding
+        Set<String> visited = Sets.newHashSet();
+        for (String current = type; current != null && visited.add(current); current = supertypes.get(current)) {
+            state.add(getTypePredicate(current), symbol);
+        }
+        if (!visited.contains(ROOT_TYPE)) {
+            state.add(getTypePredicate(ROOT_TYPE), symbol);
+        }
+    }
+
+    private PredicateType getPredicateType(PddlTokenizer tokenizer, String name, Map<String, PredicateType> predicates) {
+        PredicateType type = predicates.get(name);
+        if (type == null) {
+            throw new PddlParseException(tokenizer.getLine(), String.format("Predicate %s is not declared!", name));
+        }
+        return type;
+    }
+
+    private PredicateType getTypePredicate(String type) {
+        return typePredicates.computeIfAbsent(type, name -> new PredicateType(TYPE_PREDICATE_PREFIX + name, 1));
+    }
+
+    private void checkArity(PddlTokenizer tokenizer, PredicateType type, int count) {
+        if (type.getVariablesCount() != count) {
+            throw new PddlParseException(tokenizer.getLine(), String.format("%s expects %d arguments, not %d!", type.getName(), type.getVariablesCount(), count));
+        }
+    }
+
+    private Symbol getSymbol(String name) {
+        return symbols.computeIfAbsent(name, Symbol::new);
+    }
+}
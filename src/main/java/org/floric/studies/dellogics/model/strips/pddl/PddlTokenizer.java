@@ -0,0 +1,117 @@
+package org.floric.studies.dellogics.model.strips.pddl;
+
+import org.floric.studies.dellogics.model.strips.exceptions.PddlParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+// reads one token at a time from the stream, nothing but the current token is kept in memory
+class PddlTokenizer {
+    static final String OPEN = "(";
+    static final String CLOSE = ")";
+
+    private final Reader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private int nextChar;
+    private int line = 1;
+    private String peeked;
+
+    PddlTokenizer(Reader reader) {
+        this.reader = reader;
+        this.nextChar = read();
+    }
+
+    String peek() {
+        if (peeked == null) {
+            peeked = readToken();
+        }
+        return peeked;
+    }
+
+    String next() {
+        String token = peek();
+        peeked = null;
+
+        if (token == null) {
+            throw new PddlParseException(line, "Unexpected end of input!");
+        }
+        return token;
+    }
+
+    void expect(String expected) {
+        String token = next();
+        if (!token.equals(expected)) {
+            throw new PddlParseException(line, String.format("Expected '%s' but found '%s'!", expected, token));
+        }
+    }
+
+    boolean isNext(String expected) {
+        return expected.equals(peek());
+    }
+
+    // skips the rest of the current list including its closing parenthesis
+    void skipList() {
+        int depth = 1;
+        while (depth > 0) {
+            String token = next();
+            if (OPEN.equals(token)) {
+                depth++;
+            } else if (CLOSE.equals(token)) {
+                depth--;
+            }
+        }
+    }
+
+    int getLine() {
+        return line;
+    }
+
+    private String readToken() {
+        skipWhitespaceAndComments();
+        if (nextChar < 0) {
+            return null;
+        }
+
+        if (nextChar == '(' || nextChar == ')') {
+            String token = nextChar == '(' ? OPEN : CLOSE;
+            nextChar = read();
+            return token;
+        }
+
+        buffer.setLength(0);
+        while (nextChar >= 0 && !Character.isWhitespace(nextChar) && nextChar != '(' && nextChar != ')' && nextChar != ';') {
+            buffer.append((char) nextChar);
+            nextChar = read();
+        }
+
+        // pddl is case insensitive
+        return buffer.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (nextChar >= 0) {
+            if (nextChar == ';') {
+                while (nextChar >= 0 && nextChar != '\n') {
+                    nextChar = read();
+                }
+            } else if (Character.isWhitespace(nextChar)) {
+                nextChar = read();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private int read() {
+        try {
+            int result = reader.read();
+            if (result == '\n') {
+                line++;
+            }
+            return result;
+        } catch (IOException e) {
+            throw new PddlParseException("Reading PDDL input failed!", e);
+        }
+    }
+}
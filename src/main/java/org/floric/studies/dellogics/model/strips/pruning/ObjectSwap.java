@@ -0,0 +1,29 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.floric.studies.dellogics.model.strips.InstancedPredicate;
+import org.floric.studies.dellogics.model.strips.Symbol;
+
+import java.util.stream.Collectors;
+
+// transposition of two objects, all other symbols stay in place
+@Value
+@AllArgsConstructor
+public class ObjectSwap {
+    private Symbol first;
+    private Symbol second;
+
+    public Symbol apply(Symbol symbol) {
+        if (symbol.equals(first)) {
+            return second;
+        }
+        return symbol.equals(second) ? first : symbol;
+    }
+
+    public InstancedPredicate apply(InstancedPredicate predicate) {
+        return InstancedPredicate.of(predicate.getType(), predicate.isState(), predicate.getSymbols().stream()
+                .map(this::apply)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,109 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// object permutations mapping the task onto itself, generated by swaps of two symbols with equal colors.
+// schemes don't name symbols and dynamic facts change anyway, so a swap only has to keep static facts and goal
+public class ObjectSymmetries {
+    private static final String STATIC = "S";
+    private static final String GOAL = "G";
+
+    // groups of objects which can be permuted freely, every group has at least two objects
+    @Getter
+    private final List<List<Symbol>> groups;
+
+    private ObjectSymmetries(List<List<Symbol>> groups) {
+        this.groups = groups;
+    }
+
+    public static ObjectSymmetries of(StripsPlanningTask task) {
+        Set<PredicateType> changedTypes = task.getActions().stream()
+                .flatMap(scheme -> scheme.getEffects().stream())
+                .map(Predicate::getType)
+                .collect(Collectors.toSet());
+        Set<InstancedPredicate> staticFacts = task.getStartingState().stream()
+                .filter(fact -> !changedTypes.contains(fact.getType()))
+                .collect(Collectors.toSet());
+        Set<InstancedPredicate> goal = task.getGoalFormula();
+
+        Set<Symbol> symbols = Sets.newHashSet();
+        task.getStartingState().forEach(fact -> symbols.addAll(fact.getSymbols()));
+        goal.forEach(fact -> symbols.addAll(fact.getSymbols()));
+
+        Map<String, Set<InstancedPredicate>> parts = Maps.newLinkedHashMap();
+        parts.put(STATIC, staticFacts);
+        parts.put(GOAL, goal);
+        Map<Symbol, Integer> colors = ColorRefinement.refine(parts, symbols);
+
+        // names only make the result stable between runs
+        Map<Integer, List<Symbol>> colorClasses = new TreeMap<>(symbols.stream()
+                .sorted(Comparator.comparing(Symbol::getName))
+                .collect(Collectors.groupingBy(colors::get)));
+
+        List<List<Symbol>> groups = Lists.newArrayList();
+        for (List<Symbol> colorClass : colorClasses.values()) {
+            findGroups(colorClass, staticFacts, goal).stream()
+                    .filter(group -> group.size() > 1)
+                    .map(ImmutableList::copyOf)
+                    .forEach(groups::add);
+        }
+
+        return new ObjectSymmetries(ImmutableList.copyOf(groups));
+    }
+
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    // swaps of any two objects of a group, they are all symmetries once the swaps with the first object are
+    public List<ObjectSwap> getSwaps() {
+        List<ObjectSwap> swaps = Lists.newArrayList();
+        for (List<Symbol> group : groups) {
+            for (int i = 0; i < group.size(); i++) {
+                for (int j = i + 1; j < group.size(); j++) {
+                    swaps.add(new ObjectSwap(group.get(i), group.get(j)));
+                }
+            }
+        }
+        return swaps;
+    }
+
+    private static List<List<Symbol>> findGroups(List<Symbol> colorClass, Set<InstancedPredicate> staticFacts, Set<InstancedPredicate> goal) {
+        // equal colors don't guarantee a symmetry, so every object is checked against the first object of each group
+        List<List<Symbol>> groups = Lists.newArrayList();
+
+        for (Symbol symbol : colorClass) {
+            Optional<List<Symbol>> match = groups.stream()
+                    .filter(group -> {
+                        ObjectSwap swap = new ObjectSwap(group.get(0), symbol);
+                        return isKept(swap, staticFacts) && isKept(swap, goal);
+                    })
+                    .findFirst();
+
+            if (match.isPresent()) {
+                match.get().add(symbol);
+            } else {
+                groups.add(Lists.newArrayList(symbol));
+            }
+        }
+
+        return groups;
+    }
+
+    private static boolean isKept(ObjectSwap swap, Set<InstancedPredicate> facts) {
+        return facts.stream().allMatch(fact -> facts.contains(swap.apply(fact)));
+    }
+}
@@ -0,0 +1,202 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import com.google.common.collect.Lists;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// partial order reduction, only applicable actions of a set closed under interference and necessary enabling are expanded
+public class StrongStubbornSets {
+
+    private final List<GroundAction> actions;
+    private final int[] goalAtoms;
+
+    // per atom the actions adding it, deleting it, requiring it and forbidding it
+    private final int[][] achievers;
+    private final int[][] deleters;
+    private final int[][] requirers;
+    private final int[][] forbidders;
+
+    // the parallel search prunes from several threads
+    private final LongAdder applicableActions = new LongAdder();
+    private final LongAdder prunedActions = new LongAdder();
+    private final ThreadLocal<Marks> marks;
+
+    public StrongStubbornSets(GroundedTask task) {
+        this.actions = task.getActions();
+        this.goalAtoms = task.getGoal().toBitSet().stream().toArray();
+
+        int atomCount = task.getAtoms().size();
+        List<List<Integer>> achieving = createLists(atomCount);
+        List<List<Integer>> deleting = createLists(atomCount);
+        List<List<Integer>> requiring = createLists(atomCount);
+        List<List<Integer>> forbidding = createLists(atomCount);
+
+        for (GroundAction action : actions) {
+            Arrays.stream(action.getAddEffects()).distinct().forEach(atomId -> achieving.get(atomId).add(action.getId()));
+            Arrays.stream(action.getEffectiveDeleteEffects()).forEach(atomId -> deleting.get(atomId).add(action.getId()));
+            Arrays.stream(action.getPreconditions()).distinct().forEach(atomId -> requiring.get(atomId).add(action.getId()));
+            Arrays.stream(action.getNegativePreconditions()).distinct().forEach(atomId -> forbidding.get(atomId).add(action.getId()));
+        }
+
+        this.achievers = toArrays(achieving);
+        this.deleters = toArrays(deleting);
+        this.requirers = toArrays(requiring);
+        this.forbidders = toArrays(forbidding);
+        this.marks = ThreadLocal.withInitial(() -> new Marks(actions.size()));
+    }
+
+    public List<GroundAction> prune(PackedState state, List<GroundAction> applicable) {
+        applicableActions.add(applicable.size());
+
+        int goalAtom = selectUnsatisfiedGoal(state);
+        // in goal states the search stops anyway and a single action has nothing to be ordered with
+        if (goalAtom == -1 || applicable.size() <= 1) {
+            return applicable;
+        }
+
+        Marks stubborn = marks.get();
+        stubborn.clear();
+        stubborn.addAll(achievers[goalAtom]);
+
+        while (stubborn.hasNext()) {
+            GroundAction action = actions.get(stubborn.next());
+
+            if (action.isApplicable(state)) {
+                addInterferingActions(action, stubborn);
+            } else {
+                addNecessaryEnablingSet(action, state, stubborn);
+            }
+        }
+
+        List<GroundAction> result = Lists.newArrayListWithCapacity(applicable.size());
+        for (GroundAction action : applicable) {
+            if (stubborn.contains(action.getId())) {
+                result.add(action);
+            }
+        }
+
+        prunedActions.add(applicable.size() - result.size());
+        return result;
+    }
+
+    public long getApplicableActions() {
+        return applicableActions.sum();
+    }
+
+    public long getPrunedActions() {
+        return prunedActions.sum();
+    }
+
+    private void addInterferingActions(GroundAction action, Marks stubborn) {
+        // actions disabling this one
+        for (int atomId : action.getPreconditions()) {
+            stubborn.addAll(deleters[atomId]);
+        }
+        for (int atomId : action.getNegativePreconditions()) {
+            stubborn.addAll(achievers[atomId]);
+        }
+
+        // actions disabled by this one and actions with conflicting effects
+        // only deletes which are not added again change a state
+        for (int atomId : action.getEffectiveDeleteEffects()) {
+            stubborn.addAll(requirers[atomId]);
+            stubborn.addAll(achievers[atomId]);
+        }
+        for (int atomId : action.getAddEffects()) {
+            stubborn.addAll(forbidders[atomId]);
+            stubborn.addAll(deleters[atomId]);
+        }
+    }
+
+    private void addNecessaryEnablingSet(GroundAction action, PackedState state, Marks stubborn) {
+        // any unsatisfied precondition works, the one with the fewest enablers keeps the set small
+        int[] enablers = null;
+
+        for (int atomId : action.getPreconditions()) {
+            if (!state.contains(atomId) && (enablers == null || achievers[atomId].length < enablers.length)) {
+                enablers = achievers[atomId];
+            }
+        }
+        for (int atomId : action.getNegativePreconditions()) {
+            if (state.contains(atomId) && (enablers == null || deleters[atomId].length < enablers.length)) {
+                enablers = deleters[atomId];
+            }
+        }
+
+        if (enablers != null) {
+            stubborn.addAll(enablers);
+        }
+    }
+
+    private int selectUnsatisfiedGoal(PackedState state) {
+        int result = -1;
+
+        for (int atomId : goalAtoms) {
+            if (!state.contains(atomId) && (result == -1 || achievers[atomId].length < achievers[result].length)) {
+                result = atomId;
+            }
+        }
+
+        return result;
+    }
+
+    private static List<List<Integer>> createLists(int count) {
+        List<List<Integer>> result = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            result.add(Lists.newArrayList());
+        }
+        return result;
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        return lists.stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    // marked actions and the queue of marked ones still to process, the stamp avoids clearing the marks per state
+    private static class Marks {
+        private final int[] stamps;
+        private final int[] queue;
+        private int stamp;
+        private int head;
+        private int tail;
+
+        Marks(int actionCount) {
+            this.stamps = new int[actionCount];
+            this.queue = new int[actionCount];
+        }
+
+        void clear() {
+            stamp++;
+            head = 0;
+            tail = 0;
+        }
+
+        void addAll(int[] actionIds) {
+            for (int actionId : actionIds) {
+                if (stamps[actionId] != stamp) {
+                    stamps[actionId] = stamp;
+                    queue[tail++] = actionId;
+                }
+            }
+        }
+
+        boolean contains(int actionId) {
+            return stamps[actionId] == stamp;
+        }
+
+        boolean hasNext() {
+            return head < tail;
+        }
+
+        int next() {
+            return queue[head++];
+        }
+    }
+}
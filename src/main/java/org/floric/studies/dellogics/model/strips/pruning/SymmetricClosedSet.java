@@ -0,0 +1,31 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import org.floric.studies.dellogics.model.search.ClosedSet;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+// closed set over orbit representatives, a state counts as reached once any symmetric state was
+public class SymmetricClosedSet implements ClosedSet<PackedState> {
+
+    private final ClosedSet<PackedState> states;
+    private final SymmetryReduction reduction;
+
+    public SymmetricClosedSet(ClosedSet<PackedState> states, SymmetryReduction reduction) {
+        this.states = states;
+        this.reduction = reduction;
+    }
+
+    @Override
+    public boolean add(PackedState state) {
+        return states.add(reduction.getCanonicalState(state));
+    }
+
+    @Override
+    public boolean contains(PackedState state) {
+        return states.contains(reduction.getCanonicalState(state));
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+}
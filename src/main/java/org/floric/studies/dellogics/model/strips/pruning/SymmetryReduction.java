@@ -0,0 +1,85 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import com.google.common.collect.Lists;
+import org.floric.studies.dellogics.model.strips.InstancedPredicate;
+import org.floric.studies.dellogics.model.strips.grounding.AtomTable;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.BitSet;
+import java.util.List;
+
+// maps states to a representative of their symmetry orbit by applying swaps as long as the state gets smaller.
+// this greedy representative isn't unique for every orbit, it only ever merges states which are really symmetric
+public class SymmetryReduction {
+
+    // per swap the atom every atom is mapped to
+    private final List<int[]> atomPermutations = Lists.newArrayList();
+
+    public SymmetryReduction(GroundedTask task, ObjectSymmetries symmetries) {
+        AtomTable atoms = task.getAtoms();
+
+        for (ObjectSwap swap : symmetries.getSwaps()) {
+            int[] permutation = toAtomPermutation(swap, atoms);
+            if (permutation != null) {
+                atomPermutations.add(permutation);
+            }
+        }
+    }
+
+    public int getGeneratorCount() {
+        return atomPermutations.size();
+    }
+
+    public PackedState getCanonicalState(PackedState state) {
+        PackedState result = state;
+        boolean isImproved = true;
+
+        while (isImproved) {
+            isImproved = false;
+
+            for (int[] permutation : atomPermutations) {
+                PackedState candidate = permute(result, permutation);
+                if (compare(candidate, result) < 0) {
+                    result = candidate;
+                    isImproved = true;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static PackedState permute(PackedState state, int[] permutation) {
+        BitSet bits = new BitSet(permutation.length);
+        state.forEachAtom(atomId -> bits.set(permutation[atomId]));
+        return PackedState.of(bits);
+    }
+
+    private static int compare(PackedState first, PackedState second) {
+        // compares the states as numbers, the highest word decides first
+        for (int i = Math.max(first.getWordCount(), second.getWordCount()) - 1; i >= 0; i--) {
+            int result = Long.compareUnsigned(first.getWord(i), second.getWord(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static int[] toAtomPermutation(ObjectSwap swap, AtomTable atoms) {
+        int[] permutation = new int[atoms.size()];
+
+        for (int atomId = 0; atomId < atoms.size(); atomId++) {
+            InstancedPredicate swapped = swap.apply(atoms.getAtom(atomId));
+            permutation[atomId] = atoms.getId(swapped);
+
+            // atoms nobody ever grounded can't be mapped, the swap is left out then
+            if (permutation[atomId] == AtomTable.UNKNOWN_ATOM) {
+                return null;
+            }
+        }
+
+        return permutation;
+    }
+}
@@ -0,0 +1,232 @@
+package org.floric.studies.dellogics.model.strips.regression;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+// pairs of atoms which can't be true together in any reachable state, found by h^2 reachability.
+// regression produces many subgoals like being at two places at once, they are dropped with this table
+public class MutexTable {
+
+    private final List<GroundAction> actions;
+    private final boolean[] reachableAtoms;
+    // atoms no action adds or deletes are true in every state or in none, only pairs of the others are stored
+    private final BitSet fluentAtoms;
+    // every pair of fluent atoms which may be true together, smaller id in the upper half
+    private final Set<Long> reachablePairs = Sets.newHashSet();
+    // per fluent atom the atoms it may be true with and the actions requiring it
+    private final List<List<Integer>> partners = Lists.newArrayList();
+    private final List<List<Integer>> requirers = Lists.newArrayList();
+
+    // per action its fluent preconditions and add effects, each atom once. negative preconditions are assumed to
+    // hold, that only makes more pairs reachable
+    private final int[][] preconditions;
+    private final int[][] addEffects;
+    private final boolean[] applicableActions;
+    private final List<GroundAction> unconditionedActions = Lists.newArrayList();
+    private final List<Integer> reachableFluentAtoms = Lists.newArrayList();
+
+    // atoms and pairs which became reachable and whose consequences are still open, an atom is a pair with itself
+    private final Queue<Long> changes = Queues.newArrayDeque();
+
+    public MutexTable(GroundedTask task) {
+        int atomCount = task.getAtoms().size();
+        this.actions = task.getActions();
+        this.reachableAtoms = new boolean[atomCount];
+        this.fluentAtoms = new BitSet(atomCount);
+        this.preconditions = new int[actions.size()][];
+        this.addEffects = new int[actions.size()][];
+        this.applicableActions = new boolean[actions.size()];
+
+        for (GroundAction action : actions) {
+            Arrays.stream(action.getAddEffects()).forEach(fluentAtoms::set);
+            Arrays.stream(action.getEffectiveDeleteEffects()).forEach(fluentAtoms::set);
+        }
+        for (int i = 0; i < atomCount; i++) {
+            partners.add(Lists.newArrayList());
+            requirers.add(Lists.newArrayList());
+        }
+
+        // static atoms of the initial state are reachable with everything, the other static atoms never are
+        PackedState initialState = task.getInitialState();
+        initialState.forEachAtom(atomId -> {
+            if (!fluentAtoms.get(atomId)) {
+                reachableAtoms[atomId] = true;
+            }
+        });
+
+        for (GroundAction action : actions) {
+            addEffects[action.getId()] = Arrays.stream(action.getAddEffects()).distinct().toArray();
+            if (!Arrays.stream(action.getPreconditions()).allMatch(atomId -> fluentAtoms.get(atomId) || reachableAtoms[atomId])) {
+                preconditions[action.getId()] = null;
+                continue;
+            }
+
+            int[] pre = Arrays.stream(action.getPreconditions()).filter(fluentAtoms::get).distinct().toArray();
+            preconditions[action.getId()] = pre;
+            Arrays.stream(pre).forEach(atomId -> requirers.get(atomId).add(action.getId()));
+            if (pre.length == 0) {
+                unconditionedActions.add(action);
+            }
+        }
+
+        int[] initialAtoms = initialState.toBitSet().stream().filter(fluentAtoms::get).toArray();
+        for (int first : initialAtoms) {
+            setAtom(first);
+            for (int second : initialAtoms) {
+                setPair(first, second);
+            }
+        }
+        unconditionedActions.forEach(this::tryApply);
+
+        while (!changes.isEmpty()) {
+            long change = changes.poll();
+            int first = (int) (change >>> 32);
+            int second = (int) change;
+
+            if (first == second) {
+                onAtom(first);
+            } else {
+                onPair(first, second);
+                onPair(second, first);
+            }
+        }
+    }
+
+    public boolean isMutexFree(PackedState state) {
+        int[] atomIds = state.toBitSet().stream().toArray();
+        for (int atomId : atomIds) {
+            if (!reachableAtoms[atomId]) {
+                return false;
+            }
+        }
+        return isReachable(Arrays.stream(atomIds).filter(fluentAtoms::get).toArray());
+    }
+
+    private void onAtom(int atomId) {
+        for (int actionId : requirers.get(atomId)) {
+            tryApply(actions.get(actionId));
+        }
+
+        // actions without fluent preconditions can run next to any atom
+        for (GroundAction action : unconditionedActions) {
+            if (applicableActions[action.getId()] && isUntouched(atomId, action)) {
+                setPairs(atomId, addEffects[action.getId()]);
+            }
+        }
+    }
+
+    // the atom may now be true next to a precondition of the actions requiring the other one
+    private void onPair(int atomId, int required) {
+        for (int actionId : requirers.get(required)) {
+            GroundAction action = actions.get(actionId);
+            if (!applicableActions[actionId]) {
+                tryApply(action);
+            } else if (isUntouched(atomId, action) && isReachableWith(atomId, preconditions[actionId])) {
+                setPairs(atomId, addEffects[actionId]);
+            }
+        }
+    }
+
+    private void tryApply(GroundAction action) {
+        int[] pre = preconditions[action.getId()];
+        if (applicableActions[action.getId()] || !isReachable(pre)) {
+            return;
+        }
+        applicableActions[action.getId()] = true;
+
+        int[] adds = addEffects[action.getId()];
+        for (int first : adds) {
+            setAtom(first);
+            for (int second : adds) {
+                setPair(first, second);
+            }
+        }
+
+        // atoms the action leaves untouched can stay true next to its add effects. they have to be true with the
+        // first precondition, atoms or pairs found later are handled when they are taken from the queue
+        List<Integer> candidates = pre.length == 0 ? reachableFluentAtoms : partners.get(pre[0]);
+        for (int i = 0, size = candidates.size(); i < size; i++) {
+            int atomId = candidates.get(i);
+            if (isUntouched(atomId, action) && isReachableWith(atomId, pre)) {
+                setPairs(atomId, adds);
+            }
+        }
+        // the first precondition is no partner of itself
+        if (pre.length > 0 && isUntouched(pre[0], action) && isReachableWith(pre[0], pre)) {
+            setPairs(pre[0], adds);
+        }
+    }
+
+    private boolean isUntouched(int atomId, GroundAction action) {
+        return !action.getAddMask().contains(atomId) && !action.getDeleteMask().contains(atomId);
+    }
+
+    private boolean isReachable(int[] atomIds) {
+        if (atomIds == null) {
+            return false;
+        }
+
+        for (int i = 0; i < atomIds.length; i++) {
+            if (!reachableAtoms[atomIds[i]]) {
+                return false;
+            }
+            for (int j = i + 1; j < atomIds.length; j++) {
+                if (!isReachablePair(atomIds[i], atomIds[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isReachableWith(int atomId, int[] atomIds) {
+        for (int other : atomIds) {
+            if (other != atomId && !isReachablePair(atomId, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isReachablePair(int first, int second) {
+        return reachablePairs.contains(toKey(first, second));
+    }
+
+    private void setAtom(int atomId) {
+        if (!reachableAtoms[atomId]) {
+            reachableAtoms[atomId] = true;
+            reachableFluentAtoms.add(atomId);
+            changes.add(toKey(atomId, atomId));
+        }
+    }
+
+    private void setPairs(int atomId, int[] others) {
+        for (int other : others) {
+            setPair(atomId, other);
+        }
+    }
+
+    private void setPair(int first, int second) {
+        if (first == second || !reachablePairs.add(toKey(first, second))) {
+            return;
+        }
+
+        partners.get(first).add(second);
+        partners.get(second).add(first);
+        changes.add(toKey(first, second));
+    }
+
+    private static long toKey(int first, int second) {
+        return (long) Math.min(first, second) << 32 | Math.max(first, second);
+    }
+}
@@ -0,0 +1,151 @@
+package org.floric.studies.dellogics.model.strips.regression;
+
+import com.google.common.collect.Lists;
+import org.floric.studies.dellogics.model.search.ClosedSet;
+import org.floric.studies.dellogics.model.search.SearchProblem;
+import org.floric.studies.dellogics.model.search.Successor;
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// searches backwards from the goal over partial states until the initial state satisfies one of them.
+// plans come out last action first
+public class RegressionSearchProblem implements SearchProblem<RegressionState, ActionApplication> {
+
+    private final List<GroundAction> actions;
+    private final PackedState initialState;
+    private final RegressionState goal;
+
+    // per atom the actions adding and deleting it, only they can be regressed through
+    private final List<List<Integer>> adders = Lists.newArrayList();
+    private final List<List<Integer>> deleters = Lists.newArrayList();
+    // atoms which can never become true or never become false again, subgoals needing that are dead ends
+    private final PackedState neverTrue;
+    private final PackedState neverFalse;
+    private final MutexTable mutexes;
+
+    public RegressionSearchProblem(GroundedTask task) {
+        this(task, new MutexTable(task));
+    }
+
+    public RegressionSearchProblem(GroundedTask task, MutexTable mutexes) {
+        this.actions = task.getActions();
+        this.initialState = task.getInitialState();
+        this.goal = new RegressionState(task.getGoal(), PackedState.empty());
+
+        int atomCount = task.getAtoms().size();
+        for (int i = 0; i < atomCount; i++) {
+            adders.add(Lists.newArrayList());
+            deleters.add(Lists.newArrayList());
+        }
+
+        BitSet added = new BitSet(atomCount);
+        BitSet deleted = new BitSet(atomCount);
+        for (GroundAction action : actions) {
+            Arrays.stream(action.getAddEffects()).distinct().forEach(atomId -> {
+                adders.get(atomId).add(action.getId());
+                added.set(atomId);
+            });
+            Arrays.stream(action.getEffectiveDeleteEffects()).forEach(atomId -> {
+                deleters.get(atomId).add(action.getId());
+                deleted.set(atomId);
+            });
+        }
+
+        BitSet initialAtoms = initialState.toBitSet();
+        BitSet neverTrueAtoms = new BitSet(atomCount);
+        neverTrueAtoms.set(0, atomCount);
+        neverTrueAtoms.andNot(added);
+        neverTrueAtoms.andNot(initialAtoms);
+        BitSet neverFalseAtoms = (BitSet) initialAtoms.clone();
+        neverFalseAtoms.andNot(deleted);
+
+        this.neverTrue = PackedState.of(neverTrueAtoms);
+        this.neverFalse = PackedState.of(neverFalseAtoms);
+        this.mutexes = mutexes;
+    }
+
+    @Override
+    public RegressionState getInitialState() {
+        return goal;
+    }
+
+    @Override
+    public boolean isGoal(RegressionState state) {
+        return state.isSatisfiedBy(initialState);
+    }
+
+    @Override
+    public List<Successor<RegressionState, ActionApplication>> getSuccessors(RegressionState state) {
+        // an action is only worth regressing through if it adds a required or deletes a forbidden atom
+        BitSet candidates = new BitSet(actions.size());
+        state.getRequired().forEachAtom(atomId -> adders.get(atomId).forEach(candidates::set));
+        state.getForbidden().forEachAtom(atomId -> deleters.get(atomId).forEach(candidates::set));
+
+        List<Successor<RegressionState, ActionApplication>> successors = Lists.newArrayList();
+        for (int actionId = candidates.nextSetBit(0); actionId >= 0; actionId = candidates.nextSetBit(actionId + 1)) {
+            GroundAction action = actions.get(actionId);
+            RegressionState regressed = regress(state, action);
+
+            if (regressed != null) {
+                successors.add(new Successor<>(action.getApplication(), regressed));
+            }
+        }
+
+        return successors;
+    }
+
+    @Override
+    public ClosedSet<RegressionState> createClosedSet() {
+        // a subgoal is subsumed if a subgoal with a subset of its literals was already reached on the same or an
+        // earlier layer, whatever plan reaches the bigger one reaches the smaller one as well
+        SubsetIndex index = new SubsetIndex();
+
+        return new ClosedSet<RegressionState>() {
+            @Override
+            public boolean add(RegressionState state) {
+                int[] literals = state.toLiterals();
+                if (index.containsSubsetOf(literals)) {
+                    return false;
+                }
+
+                index.add(literals);
+                return true;
+            }
+
+            @Override
+            public boolean contains(RegressionState state) {
+                return index.containsSubsetOf(state.toLiterals());
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    private RegressionState regress(RegressionState state, GroundAction action) {
+        PackedState deleteMask = action.getEffectiveDeleteMask();
+
+        // the action must not destroy what the subgoal still needs after it
+        if (deleteMask.intersects(state.getRequired()) || action.getAddMask().intersects(state.getForbidden())) {
+            return null;
+        }
+
+        PackedState required = state.getRequired().apply(action.getAddMask(), action.getPreconditionMask());
+        PackedState forbidden = state.getForbidden().apply(deleteMask, action.getNegativePreconditionMask());
+
+        if (required.intersects(forbidden) || required.intersects(neverTrue) || forbidden.intersects(neverFalse)
+                || !mutexes.isMutexFree(required)) {
+            return null;
+        }
+
+        return new RegressionState(required, forbidden);
+    }
+}
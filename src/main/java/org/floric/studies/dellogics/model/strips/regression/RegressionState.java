@@ -0,0 +1,40 @@
+package org.floric.studies.dellogics.model.strips.regression;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.Arrays;
+import java.util.List;
+
+// partial state of the regression search, it stands for all states with every required and no forbidden atom
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class RegressionState {
+    private final PackedState required;
+    private final PackedState forbidden;
+
+    public boolean isSatisfiedBy(PackedState state) {
+        return state.containsAll(required) && !state.intersects(forbidden);
+    }
+
+    // sorted literals encoded as atom << 1 | (forbidden ? 1 : 0)
+    public int[] toLiterals() {
+        List<Integer> literals = Lists.newArrayListWithCapacity(required.cardinality() + forbidden.cardinality());
+        required.forEachAtom(atomId -> literals.add(atomId << 1));
+        forbidden.forEachAtom(atomId -> literals.add(atomId << 1 | 1));
+
+        int[] result = Ints.toArray(literals);
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%s -%s", required, forbidden);
+    }
+}
@@ -0,0 +1,53 @@
+package org.floric.studies.dellogics.model.strips.regression;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+
+// set trie over sorted int arrays, finds out if any stored set is a subset of a given one without testing all of them
+public class SubsetIndex {
+
+    private final Node root = new Node();
+    private int size;
+
+    public void add(int[] sortedElements) {
+        Node node = root;
+        for (int element : sortedElements) {
+            node = node.children.computeIfAbsent(element, e -> new Node());
+        }
+
+        if (!node.isEnd) {
+            node.isEnd = true;
+            size++;
+        }
+    }
+
+    public boolean containsSubsetOf(int[] sortedElements) {
+        return containsSubsetOf(root, sortedElements, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean containsSubsetOf(Node node, int[] query, int start) {
+        if (node.isEnd) {
+            return true;
+        }
+
+        // the elements of a stored set are a sorted selection of the query, so only later elements can follow
+        for (int i = start; i < query.length && !node.children.isEmpty(); i++) {
+            Node child = node.children.get(query[i]);
+            if (child != null && containsSubsetOf(child, query, i + 1)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static class Node {
+        private final Map<Integer, Node> children = Maps.newHashMap();
+        private boolean isEnd;
+    }
+}
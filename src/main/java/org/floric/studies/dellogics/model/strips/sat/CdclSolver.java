@@ -0,0 +1,588 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// conflict driven clause learning with two watched literals, vsids, phase saving and luby restarts.
+// variables are numbered from 1 and literals are given like in dimacs files, -v is the negation of v.
+// clauses can be added between calls of solve, learned clauses stay as they follow from the added ones
+public class CdclSolver {
+    private static final byte UNASSIGNED = -1;
+    private static final byte FALSE = 0;
+    private static final byte TRUE = 1;
+
+    private static final int RESTART_BASE = 100;
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+    private static final double RESCALE_LIMIT = 1e100;
+
+    private int variableCount;
+    // per variable, indexed from 1
+    private byte[] values = new byte[1];
+    private int[] levels = new int[1];
+    private Clause[] reasons = new Clause[1];
+    private double[] activities = new double[1];
+    // last value of every variable, decisions use it again. new variables start with false
+    private boolean[] phases = new boolean[1];
+    private boolean[] seen = new boolean[1];
+    // per literal, the clauses watching it
+    private List<List<Clause>> watches = Lists.newArrayList(Lists.newArrayList(), Lists.newArrayList());
+
+    private int[] trail = new int[1];
+    private int trailSize;
+    private int propagationHead;
+    private final List<Integer> levelStarts = Lists.newArrayList();
+
+    private final List<Clause> learnedClauses = Lists.newArrayList();
+    private final VariableOrder order = new VariableOrder();
+    private double variableIncrement = 1;
+    private double clauseIncrement = 1;
+    private int clauseCount;
+    private double maxLearnedClauses;
+    // false once the clauses are unsatisfiable without any assumptions
+    private boolean isConsistent = true;
+
+    private boolean[] model = new boolean[1];
+
+    @Getter
+    private long decisions;
+    @Getter
+    private long propagations;
+    @Getter
+    private long conflicts;
+    @Getter
+    private long restarts;
+
+    public int newVariable() {
+        variableCount++;
+        if (variableCount >= values.length) {
+            int capacity = values.length * 2;
+            values = Arrays.copyOf(values, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            model = Arrays.copyOf(model, capacity);
+        }
+
+        values[variableCount] = UNASSIGNED;
+        watches.add(Lists.newArrayList());
+        watches.add(Lists.newArrayList());
+        order.insert(variableCount);
+        return variableCount;
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public int getLearnedClauseCount() {
+        return learnedClauses.size();
+    }
+
+    // returns false if the clauses became unsatisfiable, a solver in that state stays unsatisfiable
+    public boolean addClause(int... literals) {
+        if (!isConsistent) {
+            return false;
+        }
+        cancelUntil(0);
+
+        // literals false at the top level are dropped, clauses with a true literal are already satisfied
+        int[] sorted = Arrays.stream(literals).map(CdclSolver::toLiteral).sorted().distinct().toArray();
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            int literal = sorted[i];
+            if (value(literal) == TRUE || (i > 0 && sorted[i - 1] == (literal ^ 1))) {
+                return true;
+            }
+            if (value(literal) == UNASSIGNED) {
+                sorted[size++] = literal;
+            }
+        }
+
+        if (size == 0) {
+            isConsistent = false;
+        } else if (size == 1) {
+            assign(sorted[0], null);
+            isConsistent = propagate() == null;
+        } else {
+            attach(new Clause(Arrays.copyOf(sorted, size), false));
+            clauseCount++;
+        }
+
+        return isConsistent;
+    }
+
+    public SatResult solve(int... assumptions) {
+        return solve(() -> false, assumptions);
+    }
+
+    // the assumptions only hold for this call, a stopped solver can be asked again
+    public SatResult solve(BooleanSupplier shouldStop, int... assumptions) {
+        if (!isConsistent) {
+            return SatResult.UNSATISFIABLE;
+        }
+
+        int[] assumedLiterals = Arrays.stream(assumptions).map(CdclSolver::toLiteral).toArray();
+        maxLearnedClauses = Math.max(maxLearnedClauses, Math.max(clauseCount / 3.0, 1000));
+
+        SatResult result = SatResult.UNKNOWN;
+        for (int run = 0; result == SatResult.UNKNOWN; run++) {
+            if (shouldStop.getAsBoolean()) {
+                break;
+            }
+
+            result = search(RESTART_BASE * luby(run), assumedLiterals, shouldStop);
+            if (result == SatResult.UNKNOWN) {
+                restarts++;
+            }
+        }
+
+        cancelUntil(0);
+        return result;
+    }
+
+    // value of a variable in the last satisfying assignment
+    public boolean getValue(int variable) {
+        return model[variable];
+    }
+
+    private SatResult search(long conflictBudget, int[] assumptions, BooleanSupplier shouldStop) {
+        long conflictsOfRun = 0;
+
+        while (true) {
+            Clause conflict = propagate();
+
+            if (conflict != null) {
+                conflicts++;
+                conflictsOfRun++;
+                if (getDecisionLevel() == 0) {
+                    isConsistent = false;
+                    return SatResult.UNSATISFIABLE;
+                }
+
+                List<Integer> learned = analyze(conflict);
+                cancelUntil(getBacktrackLevel(learned));
+                learn(learned);
+
+                variableIncrement /= VARIABLE_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+
+                // the clock is only looked at on conflicts, propagation alone always ends quickly
+                if (shouldStop.getAsBoolean()) {
+                    return SatResult.UNKNOWN;
+                }
+                continue;
+            }
+
+            if (conflictsOfRun >= conflictBudget) {
+                cancelUntil(0);
+                return SatResult.UNKNOWN;
+            }
+            if (learnedClauses.size() - trailSize >= maxLearnedClauses) {
+                reduceLearnedClauses();
+            }
+
+            int next = 0;
+            // the assumptions are the first decisions, a false one means there is no model with all of them
+            while (next == 0 && getDecisionLevel() < assumptions.length) {
+                int assumption = assumptions[getDecisionLevel()];
+                if (value(assumption) == TRUE) {
+                    levelStarts.add(trailSize);
+                } else if (value(assumption) == FALSE) {
+                    return SatResult.UNSATISFIABLE;
+                } else {
+                    next = assumption;
+                }
+            }
+
+            if (next == 0) {
+                int variable = pickBranchVariable();
+                if (variable == 0) {
+                    for (int v = 1; v <= variableCount; v++) {
+                        model[v] = values[v] == TRUE;
+                    }
+                    return SatResult.SATISFIABLE;
+                }
+
+                decisions++;
+                next = variable << 1 | (phases[variable] ? 0 : 1);
+            }
+
+            levelStarts.add(trailSize);
+            assign(next, null);
+        }
+    }
+
+    private Clause propagate() {
+        while (propagationHead < trailSize) {
+            int falseLiteral = trail[propagationHead++] ^ 1;
+            List<Clause> watching = watches.get(falseLiteral);
+            propagations++;
+
+            int kept = 0;
+            int i = 0;
+            while (i < watching.size()) {
+                Clause clause = watching.get(i++);
+                if (clause.isDeleted) {
+                    continue;
+                }
+
+                int[] literals = clause.literals;
+                // the false literal is kept on the second position
+                if (literals[0] == falseLiteral) {
+                    literals[0] = literals[1];
+                    literals[1] = falseLiteral;
+                }
+
+                if (value(literals[0]) == TRUE) {
+                    watching.set(kept++, clause);
+                    continue;
+                }
+
+                boolean isMoved = false;
+                for (int k = 2; k < literals.length; k++) {
+                    if (value(literals[k]) != FALSE) {
+                        literals[1] = literals[k];
+                        literals[k] = falseLiteral;
+                        watches.get(literals[1]).add(clause);
+                        isMoved = true;
+                        break;
+                    }
+                }
+                if (isMoved) {
+                    continue;
+                }
+
+                watching.set(kept++, clause);
+                if (value(literals[0]) == FALSE) {
+                    // keep the remaining watchers and stop at the conflict
+                    while (i < watching.size()) {
+                        watching.set(kept++, watching.get(i++));
+                    }
+                    truncate(watching, kept);
+                    propagationHead = trailSize;
+                    return clause;
+                }
+
+                assign(literals[0], clause);
+            }
+
+            truncate(watching, kept);
+        }
+
+        return null;
+    }
+
+    // first unique implication point, the asserting literal comes first
+    private List<Integer> analyze(Clause conflict) {
+        List<Integer> learned = Lists.newArrayList(0);
+        int pathCount = 0;
+        int literal = 0;
+        int index = trailSize - 1;
+        Clause reason = conflict;
+
+        do {
+            if (reason.isLearned) {
+                bumpClause(reason);
+            }
+
+            for (int i = literal == 0 ? 0 : 1; i < reason.literals.length; i++) {
+                int other = reason.literals[i];
+                int variable = other >> 1;
+                if (seen[variable] || levels[variable] == 0) {
+                    continue;
+                }
+
+                seen[variable] = true;
+                bumpVariable(variable);
+                if (levels[variable] >= getDecisionLevel()) {
+                    pathCount++;
+                } else {
+                    learned.add(other);
+                }
+            }
+
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            reason = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+
+        learned.set(0, literal ^ 1);
+
+        // literals implied by other literals of the clause are left out
+        List<Integer> minimized = Lists.newArrayList(learned.get(0));
+        for (int i = 1; i < learned.size(); i++) {
+            if (!isRedundant(learned.get(i))) {
+                minimized.add(learned.get(i));
+            }
+        }
+
+        learned.forEach(other -> seen[other >> 1] = false);
+        return minimized;
+    }
+
+    private boolean isRedundant(int literal) {
+        Clause reason = reasons[literal >> 1];
+        if (reason == null) {
+            return false;
+        }
+
+        for (int i = 1; i < reason.literals.length; i++) {
+            int variable = reason.literals[i] >> 1;
+            if (!seen[variable] && levels[variable] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getBacktrackLevel(List<Integer> learned) {
+        int highest = 1;
+        for (int i = 2; i < learned.size(); i++) {
+            if (levels[learned.get(i) >> 1] > levels[learned.get(highest) >> 1]) {
+                highest = i;
+            }
+        }
+        if (learned.size() == 1) {
+            return 0;
+        }
+
+        // the literal of the backtrack level has to be watched next to the asserting one
+        int literal = learned.get(highest);
+        learned.set(highest, learned.get(1));
+        learned.set(1, literal);
+        return levels[literal >> 1];
+    }
+
+    private void learn(List<Integer> learned) {
+        if (learned.size() == 1) {
+            assign(learned.get(0), null);
+            return;
+        }
+
+        Clause clause = new Clause(learned.stream().mapToInt(Integer::intValue).toArray(), true);
+        attach(clause);
+        learnedClauses.add(clause);
+        bumpClause(clause);
+        assign(clause.literals[0], clause);
+    }
+
+    // drops the less active half of the learned clauses, binary ones and current reasons are kept
+    private void reduceLearnedClauses() {
+        learnedClauses.sort(Comparator.comparingDouble(clause -> clause.activity));
+
+        int limit = learnedClauses.size() / 2;
+        List<Clause> kept = Lists.newArrayList();
+        for (int i = 0; i < learnedClauses.size(); i++) {
+            Clause clause = learnedClauses.get(i);
+            if (i < limit && clause.literals.length > 2 && !isLocked(clause)) {
+                clause.isDeleted = true;
+            } else {
+                kept.add(clause);
+            }
+        }
+
+        learnedClauses.clear();
+        learnedClauses.addAll(kept);
+        maxLearnedClauses *= 1.1;
+    }
+
+    private boolean isLocked(Clause clause) {
+        int literal = clause.literals[0];
+        return reasons[literal >> 1] == clause && value(literal) == TRUE;
+    }
+
+    private int pickBranchVariable() {
+        while (!order.isEmpty()) {
+            int variable = order.removeMax();
+            if (values[variable] == UNASSIGNED) {
+                return variable;
+            }
+        }
+        return 0;
+    }
+
+    private void assign(int literal, Clause reason) {
+        int variable = literal >> 1;
+        values[variable] = (literal & 1) == 0 ? TRUE : FALSE;
+        levels[variable] = getDecisionLevel();
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    private void cancelUntil(int level) {
+        if (getDecisionLevel() <= level) {
+            return;
+        }
+
+        for (int i = trailSize - 1; i >= levelStarts.get(level); i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = values[variable] == TRUE;
+            values[variable] = UNASSIGNED;
+            reasons[variable] = null;
+            order.insert(variable);
+        }
+
+        trailSize = levelStarts.get(level);
+        propagationHead = trailSize;
+        truncate(levelStarts, level);
+    }
+
+    private void attach(Clause clause) {
+        watches.get(clause.literals[0]).add(clause);
+        watches.get(clause.literals[1]).add(clause);
+    }
+
+    private void bumpVariable(int variable) {
+        activities[variable] += variableIncrement;
+        if (activities[variable] > RESCALE_LIMIT) {
+            for (int v = 1; v <= variableCount; v++) {
+                activities[v] /= RESCALE_LIMIT;
+            }
+            variableIncrement /= RESCALE_LIMIT;
+        }
+        order.update(variable);
+    }
+
+    private void bumpClause(Clause clause) {
+        clause.activity += clauseIncrement;
+        if (clause.activity > RESCALE_LIMIT) {
+            learnedClauses.forEach(learned -> learned.activity /= RESCALE_LIMIT);
+            clauseIncrement /= RESCALE_LIMIT;
+        }
+    }
+
+    private byte value(int literal) {
+        byte value = values[literal >> 1];
+        return value == UNASSIGNED ? UNASSIGNED : (byte) (value ^ (literal & 1));
+    }
+
+    private int getDecisionLevel() {
+        return levelStarts.size();
+    }
+
+    private static int toLiteral(int dimacsLiteral) {
+        return dimacsLiteral > 0 ? dimacsLiteral << 1 : -dimacsLiteral << 1 | 1;
+    }
+
+    private static <T> void truncate(List<T> list, int size) {
+        while (list.size() > size) {
+            list.remove(list.size() - 1);
+        }
+    }
+
+    // 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+    static long luby(int index) {
+        int size = 1;
+        int sequence = 0;
+        while (size < index + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+
+        while (size - 1 != index) {
+            size = (size - 1) >> 1;
+            sequence--;
+            index = index % size;
+        }
+
+        return 1L << sequence;
+    }
+
+    private static class Clause {
+        private final int[] literals;
+        private final boolean isLearned;
+        private double activity;
+        private boolean isDeleted;
+
+        Clause(int[] literals, boolean isLearned) {
+            this.literals = literals;
+            this.isLearned = isLearned;
+        }
+    }
+
+    // binary max heap of the variables by activity
+    private class VariableOrder {
+        private int[] heap = new int[1];
+        private int[] positions = new int[1];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void insert(int variable) {
+            if (variable >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, variable + 1));
+            }
+            if (positions[variable] > 0) {
+                return;
+            }
+            if (size + 1 >= heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+
+            heap[++size] = variable;
+            positions[variable] = size;
+            siftUp(size);
+        }
+
+        void update(int variable) {
+            if (variable < positions.length && positions[variable] > 0) {
+                siftUp(positions[variable]);
+            }
+        }
+
+        int removeMax() {
+            int max = heap[1];
+            positions[max] = 0;
+            heap[1] = heap[size--];
+            if (size > 0) {
+                positions[heap[1]] = 1;
+                siftDown(1);
+            }
+            return max;
+        }
+
+        private void siftUp(int index) {
+            int variable = heap[index];
+            while (index > 1 && activities[heap[index >> 1]] < activities[variable]) {
+                heap[index] = heap[index >> 1];
+                positions[heap[index]] = index;
+                index >>= 1;
+            }
+            heap[index] = variable;
+            positions[variable] = index;
+        }
+
+        private void siftDown(int index) {
+            int variable = heap[index];
+            while (2 * index <= size) {
+                int child = 2 * index;
+                if (child + 1 <= size && activities[heap[child + 1]] > activities[heap[child]]) {
+                    child++;
+                }
+                if (activities[heap[child]] <= activities[variable]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                positions[heap[index]] = index;
+                index = child;
+            }
+            heap[index] = variable;
+            positions[variable] = index;
+        }
+    }
+}
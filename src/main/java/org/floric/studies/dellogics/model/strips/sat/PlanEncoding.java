@@ -0,0 +1,181 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import lombok.Getter;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+// time indexed encoding of a grounded task with one variable per atom and step and per action and step.
+// actions of the same step may run together if they don't interfere (forall step semantics), so every order of a
+// step leads to the same state. steps are added one by one and the goal of every horizon is switched on by its own
+// assumption, so the clauses of the smaller horizons and everything learned from them stay valid
+public class PlanEncoding {
+
+    private final GroundedTask task;
+    private final int atomCount;
+
+    // per atom the actions which need, forbid, add or delete it
+    private final List<List<Integer>> adders = Lists.newArrayList();
+    private final List<List<Integer>> deleters = Lists.newArrayList();
+    // pairs of actions that may not share a step, both ids of each pair
+    private final List<int[]> interferences = Lists.newArrayList();
+
+    @Getter
+    private final CdclSolver solver = new CdclSolver();
+
+    // variable of the atoms per step and of the actions per step
+    private final List<int[]> atomVariables = Lists.newArrayList();
+    private final List<int[]> actionVariables = Lists.newArrayList();
+    // atoms which may be true at the last step if deletes are ignored, the rest is fixed to false
+    private BitSet reachableAtoms;
+
+    public PlanEncoding(GroundedTask task) {
+        this.task = task;
+        this.atomCount = task.getAtoms().size();
+
+        List<List<Integer>> requirers = Lists.newArrayList();
+        List<List<Integer>> forbidders = Lists.newArrayList();
+        for (int i = 0; i < atomCount; i++) {
+            adders.add(Lists.newArrayList());
+            deleters.add(Lists.newArrayList());
+            requirers.add(Lists.newArrayList());
+            forbidders.add(Lists.newArrayList());
+        }
+
+        for (GroundAction action : task.getActions()) {
+            Arrays.stream(action.getAddEffects()).distinct().forEach(atomId -> adders.get(atomId).add(action.getId()));
+            Arrays.stream(action.getEffectiveDeleteEffects()).forEach(atomId -> deleters.get(atomId).add(action.getId()));
+            Arrays.stream(action.getPreconditions()).distinct().forEach(atomId -> requirers.get(atomId).add(action.getId()));
+            Arrays.stream(action.getNegativePreconditions()).distinct().forEach(atomId -> forbidders.get(atomId).add(action.getId()));
+        }
+
+        // an action interferes with another one if it falsifies one of its preconditions
+        Set<Long> pairs = Sets.newHashSet();
+        for (int atomId = 0; atomId < atomCount; atomId++) {
+            addInterferences(deleters.get(atomId), requirers.get(atomId), pairs);
+            addInterferences(adders.get(atomId), forbidders.get(atomId), pairs);
+        }
+
+        reachableAtoms = task.getInitialState().toBitSet();
+        addInitialStep();
+    }
+
+    public int getHorizon() {
+        return actionVariables.size();
+    }
+
+    // adds the actions leading from the last step to a new one
+    public void addStep() {
+        int step = getHorizon();
+        int[] atoms = atomVariables.get(step);
+        int[] actions = new int[task.getActions().size()];
+        int[] nextAtoms = new int[atomCount];
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = solver.newVariable();
+        }
+        for (int i = 0; i < atomCount; i++) {
+            nextAtoms[i] = solver.newVariable();
+        }
+        actionVariables.add(actions);
+        atomVariables.add(nextAtoms);
+
+        BitSet nextReachableAtoms = (BitSet) reachableAtoms.clone();
+        for (GroundAction action : task.getActions()) {
+            int variable = actions[action.getId()];
+
+            // actions whose preconditions aren't even reachable without deletes are left out of this step
+            if (!Arrays.stream(action.getPreconditions()).allMatch(reachableAtoms::get)) {
+                solver.addClause(-variable);
+                continue;
+            }
+            Arrays.stream(action.getAddEffects()).forEach(nextReachableAtoms::set);
+
+            for (int atomId : action.getPreconditions()) {
+                solver.addClause(-variable, atoms[atomId]);
+            }
+            for (int atomId : action.getNegativePreconditions()) {
+                solver.addClause(-variable, -atoms[atomId]);
+            }
+            for (int atomId : action.getAddEffects()) {
+                solver.addClause(-variable, nextAtoms[atomId]);
+            }
+            for (int atomId : action.getEffectiveDeleteEffects()) {
+                solver.addClause(-variable, -nextAtoms[atomId]);
+            }
+        }
+
+        for (int[] pair : interferences) {
+            solver.addClause(-actions[pair[0]], -actions[pair[1]]);
+        }
+
+        // frame axioms, an atom only changes if an action of the step changes it
+        for (int atomId = 0; atomId < atomCount; atomId++) {
+            if (!nextReachableAtoms.get(atomId)) {
+                solver.addClause(-nextAtoms[atomId]);
+                continue;
+            }
+
+            List<Integer> becomesFalse = Lists.newArrayList(-atoms[atomId], nextAtoms[atomId]);
+            deleters.get(atomId).forEach(actionId -> becomesFalse.add(actions[actionId]));
+            solver.addClause(Ints.toArray(becomesFalse));
+
+            List<Integer> becomesTrue = Lists.newArrayList(atoms[atomId], -nextAtoms[atomId]);
+            adders.get(atomId).forEach(actionId -> becomesTrue.add(actions[actionId]));
+            solver.addClause(Ints.toArray(becomesTrue));
+        }
+
+        reachableAtoms = nextReachableAtoms;
+    }
+
+    // a new variable that implies the goal at the current horizon when it is assumed
+    public int addGoalAssumption() {
+        int assumption = solver.newVariable();
+        int[] atoms = atomVariables.get(getHorizon());
+        task.getGoal().forEachAtom(atomId -> solver.addClause(-assumption, atoms[atomId]));
+        return assumption;
+    }
+
+    // the actions of every step in the last model, by ascending id
+    public List<List<GroundAction>> decodeSteps() {
+        List<List<GroundAction>> steps = Lists.newArrayList();
+        for (int[] actions : actionVariables) {
+            List<GroundAction> step = Lists.newArrayList();
+            for (GroundAction action : task.getActions()) {
+                if (solver.getValue(actions[action.getId()])) {
+                    step.add(action);
+                }
+            }
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private void addInitialStep() {
+        int[] atoms = new int[atomCount];
+        for (int i = 0; i < atomCount; i++) {
+            atoms[i] = solver.newVariable();
+            solver.addClause(task.getInitialState().contains(i) ? atoms[i] : -atoms[i]);
+        }
+        atomVariables.add(atoms);
+    }
+
+    private void addInterferences(List<Integer> falsifiers, List<Integer> needers, Set<Long> pairs) {
+        for (int falsifier : falsifiers) {
+            for (int needer : needers) {
+                int first = Math.min(falsifier, needer);
+                int second = Math.max(falsifier, needer);
+
+                if (first != second && pairs.add((long) first << 32 | second)) {
+                    interferences.add(new int[]{first, second});
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+import com.google.common.collect.Lists;
+import lombok.Getter;
+import lombok.Setter;
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchMonitor;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.grounding.GroundAction;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// planning as satisfiability, the horizon grows by one step until the encoding has a model.
+// the plans have the fewest parallel steps, not necessarily the fewest actions
+public class SatPlanner {
+    public static final int DEFAULT_MAX_HORIZON = 100;
+
+    @Setter
+    private int maxHorizon = DEFAULT_MAX_HORIZON;
+
+    // decisions of the sat solver count as expanded and propagated literals as generated nodes
+    @Getter
+    private SearchStatistics statistics = new SearchStatistics();
+
+    // steps of the last found plan
+    @Getter
+    private int horizon;
+
+    public Optional<List<ActionApplication>> plan(GroundedTask task, SearchControl control) {
+        statistics = new SearchStatistics();
+        SearchMonitor monitor = control.start();
+
+        try {
+            Optional<List<ActionApplication>> plan = doPlan(task, monitor);
+            if (!plan.isPresent() && !monitor.isStopped()) {
+                // a longer plan may still exist
+                statistics.setStatus(SearchStatus.HORIZON_LIMIT);
+            } else {
+                statistics.setStatus(monitor.getStatus(plan.isPresent()));
+            }
+            return plan;
+        } finally {
+            statistics.setElapsedMillis(monitor.getElapsedMillis());
+        }
+    }
+
+    private Optional<List<ActionApplication>> doPlan(GroundedTask task, SearchMonitor monitor) {
+        if (monitor.shouldStopNow(statistics, 0)) {
+            return Optional.empty();
+        }
+
+        PlanEncoding encoding = new PlanEncoding(task);
+        CdclSolver solver = encoding.getSolver();
+
+        while (true) {
+            int goal = encoding.addGoalAssumption();
+            SatResult result = solver.solve(() -> {
+                statistics.setExpandedNodes(solver.getDecisions());
+                statistics.setGeneratedNodes(solver.getPropagations());
+                return monitor.shouldStop(statistics, 0);
+            }, goal);
+
+            statistics.setExpandedNodes(solver.getDecisions());
+            statistics.setGeneratedNodes(solver.getPropagations());
+
+            if (result == SatResult.SATISFIABLE) {
+                horizon = encoding.getHorizon();
+                List<GroundAction> plan = removeUnneededActions(task, encoding.decodeSteps());
+                return Optional.of(plan.stream().map(GroundAction::getApplication).collect(Collectors.toList()));
+            }
+            if (result == SatResult.UNKNOWN || encoding.getHorizon() >= maxHorizon) {
+                return Optional.empty();
+            }
+
+            // no plan of this length, the learned clauses are kept for the next horizon
+            solver.addClause(-goal);
+            encoding.addStep();
+        }
+    }
+
+    // any order of a step works, but the solver is free to add actions which don't contribute to the goal
+    private static List<GroundAction> removeUnneededActions(GroundedTask task, List<List<GroundAction>> steps) {
+        List<GroundAction> plan = steps.stream().flatMap(List::stream).collect(Collectors.toList());
+
+        for (int i = plan.size() - 1; i >= 0; i--) {
+            List<GroundAction> shorterPlan = Lists.newArrayList(plan);
+            shorterPlan.remove(i);
+
+            if (isReachingGoal(task, shorterPlan)) {
+                plan = shorterPlan;
+            }
+        }
+
+        return plan;
+    }
+
+    private static boolean isReachingGoal(GroundedTask task, List<GroundAction> plan) {
+        PackedState state = task.getInitialState();
+        for (GroundAction action : plan) {
+            if (!action.isApplicable(state)) {
+                return false;
+            }
+            state = action.apply(state);
+        }
+        return state.containsAll(task.getGoal());
+    }
+}
@@ -0,0 +1,8 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+public enum SatResult {
+    SATISFIABLE,
+    UNSATISFIABLE,
+    // the solver was stopped before it found an answer
+    UNKNOWN
+}
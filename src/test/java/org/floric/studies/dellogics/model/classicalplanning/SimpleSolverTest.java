@@ -1,9 +1,17 @@
 package org.floric.studies.dellogics.model.classicalplanning;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchPhase;
+import org.floric.studies.dellogics.model.search.SearchStatus;
 import org.junit.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -27,4 +35,162 @@ public class SimpleSolverTest {
 
         assertTrue(task.getGoalStates().contains(currentState));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGraphSearchMatchesAllPlans() {
+        ClassicalPlanningSolver solver = new ClassicalPlanningSolver();
+        Random random = new Random(42);
+
+        for (int run = 0; run < 20; run++) {
+            ClassicalPlanningTask task = createRandomTask(random, 8, 2);
+            Optional<List<Action>> expected = solver.getBestSolutionFromAllPlans(task);
+            Optional<List<Action>> solution = solver.getBestSolution(task);
+
+            assertThat(solution.isPresent(), is(expected.isPresent()));
+            if (solution.isPresent()) {
+                assertThat(solution.get().size(), is(expected.get().size()));
+
+                StateGraph graph = StateGraph.of(task.getDomain());
+                State currentState = task.getInitialState();
+                for (Action action : solution.get()) {
+                    currentState = solver.applyTransitionFunction(action, currentState, graph);
+                }
+                assertTrue(task.getGoalStates().contains(currentState));
+            }
+        }
+    }
+
+    @Test
+    public void testStateGraphContainsAllTransitions() {
+        Domain domain = new ClassicalPlanningExample().createTask().getDomain();
+        StateGraph graph = StateGraph.of(domain);
+
+        assertThat(graph.getStateCount(), is(domain.getStates().size()));
+        assertThat(graph.getEdgeCount(), is(domain.getTransitionFunctions().size()));
+
+        for (State state : domain.getStates()) {
+            int id = graph.getId(state);
+            Set<StateTransitionFunction> outgoing = Sets.newHashSet();
+            for (int edge = graph.getFirstEdge(id); edge < graph.getLastEdge(id); edge++) {
+                outgoing.add(new StateTransitionFunction(state, graph.getState(graph.getEdgeTarget(edge)), graph.getAction(graph.getEdgeAction(edge))));
+            }
+
+            assertThat(outgoing, is(Sets.newHashSet(new ClassicalPlanningSolver().getPossibleStateTransitions(state, domain.getTransitionFunctions()))));
+        }
+    }
+
+    @Test
+    public void testBidirectionalSearchMatchesForwardSearch() {
+        ClassicalPlanningSolver forwardSolver = new ClassicalPlanningSolver();
+        ClassicalPlanningSolver bidirectionalSolver = new ClassicalPlanningSolver(GraphSearchMode.BIDIRECTIONAL);
+        Random random = new Random(7);
+
+        long forwardExpansions = 0;
+        long bidirectionalExpansions = 0;
+        long bidirectionalDuplicates = 0;
+        for (int run = 0; run < 50; run++) {
+            ClassicalPlanningTask task = createRandomTask(random, 2000, 3);
+            Optional<List<Action>> expected = forwardSolver.getBestSolution(task);
+            Optional<List<Action>> solution = bidirectionalSolver.getBestSolution(task);
+            forwardExpansions += forwardSolver.getStatistics().getExpandedNodes();
+            bidirectionalExpansions += bidirectionalSolver.getStatistics().getExpandedNodes();
+            bidirectionalDuplicates += bidirectionalSolver.getStatistics().getDuplicateNodes();
+
+            assertThat(solution.isPresent(), is(expected.isPresent()));
+            if (solution.isPresent()) {
+                assertThat(solution.get().size(), is(expected.get().size()));
+
+                StateGraph graph = StateGraph.of(task.getDomain());
+                State currentState = task.getInitialState();
+                for (Action action : solution.get()) {
+                    currentState = forwardSolver.applyTransitionFunction(action, currentState, graph);
+                }
+                assertTrue(task.getGoalStates().contains(currentState));
+            }
+        }
+
+        assertTrue(bidirectionalExpansions < forwardExpansions);
+        assertTrue(bidirectionalDuplicates > 0);
+        assertTrue(bidirectionalSolver.getStatistics().getPhaseNanos(SearchPhase.GROUNDING) > 0);
+        assertThat(new ClassicalPlanningSolver(GraphSearchMode.BIDIRECTIONAL).getBestSolution(new ClassicalPlanningExample().createTask()).get().size(), is(4));
+    }
+
+    @Test
+    public void testSearchStopsAtNodeBudget() {
+        ClassicalPlanningTask task = createRandomTask(new Random(3), 5000, 2);
+        SearchControl control = new SearchControl();
+        control.setNodeBudget(10);
+
+        for (GraphSearchMode searchMode : GraphSearchMode.values()) {
+            ClassicalPlanningSolver solver = new ClassicalPlanningSolver(searchMode);
+            solver.getBestSolution(task, control);
+
+            assertThat(solver.getStatistics().getStatus(), is(SearchStatus.NODE_LIMIT));
+            assertThat(solver.getStatistics().getExpandedNodes(), is(10L));
+        }
+    }
+
+    @Test
+    public void testSolutionsAreStreamedInNondecreasingLength() {
+        ClassicalPlanningSolver solver = new ClassicalPlanningSolver();
+        Random random = new Random(11);
+
+        for (int run = 0; run < 20; run++) {
+            ClassicalPlanningTask task = createRandomTask(random, 7, 2);
+            List<List<Action>> solutions = solver.getSolutions(task).collect(Collectors.toList());
+
+            Set<List<Action>> expected = Sets.newHashSet();
+            collectAllPlans(task, task.getInitialState(), Lists.newArrayList(task.getInitialState()), Lists.newArrayList(), expected);
+
+            assertThat(solutions.size(), is(expected.size()));
+            assertThat(Sets.newHashSet(solutions), is(expected));
+            for (int i = 1; i < solutions.size(); i++) {
+                assertTrue(solutions.get(i - 1).size() <= solutions.get(i).size());
+            }
+        }
+
+        assertThat(solver.getSolutions(new ClassicalPlanningExample().createTask()).findFirst().get().size(), is(4));
+    }
+
+    private void collectAllPlans(ClassicalPlanningTask task, State state, List<State> usedStates, List<Action> plan, Set<List<Action>> plans) {
+        for (StateTransitionFunction transition : task.getDomain().getTransitionFunctions()) {
+            if (!transition.getOldState().equals(state) || usedStates.contains(transition.getNewState())) {
+                continue;
+            }
+
+            List<Action> newPlan = Lists.newArrayList(plan);
+            newPlan.add(transition.getAction());
+            if (task.getGoalStates().contains(transition.getNewState())) {
+                plans.add(newPlan);
+            } else {
+                List<State> newUsedStates = Lists.newArrayList(usedStates);
+                newUsedStates.add(transition.getNewState());
+                collectAllPlans(task, transition.getNewState(), newUsedStates, newPlan, plans);
+            }
+        }
+    }
+
+    static ClassicalPlanningTask createRandomTask(Random random, int stateCount, int branchingFactor) {
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            String description = "State" + i;
+            states[i] = () -> description;
+        }
+
+        Action[] actions = new Action[branchingFactor];
+        for (int i = 0; i < branchingFactor; i++) {
+            String description = "Action" + i;
+            actions[i] = () -> description;
+        }
+
+        Set<StateTransitionFunction> transitionFunctions = Sets.newHashSet();
+        for (State state : states) {
+            for (Action action : actions) {
+                transitionFunctions.add(new StateTransitionFunction(state, states[random.nextInt(stateCount)], action));
+            }
+        }
+
+        Domain domain = new Domain(Sets.newHashSet(actions), Sets.newHashSet(states), transitionFunctions);
+        return new ClassicalPlanningTask(domain, states[0], Sets.newHashSet(states[stateCount - 1]));
+    }
+}
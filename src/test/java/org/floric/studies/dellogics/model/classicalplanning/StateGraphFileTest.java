@@ -0,0 +1,130 @@
+package org.floric.studies.dellogics.model.classicalplanning;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class StateGraphFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMappedGraphMatchesDomain() throws IOException {
+        ClassicalPlanningTask task = new ClassicalPlanningExample().createTask();
+        Path file = folder.newFile().toPath();
+        StateGraphFile.write(task.getDomain(), file);
+
+        StateGraph graph = StateGraph.of(task.getDomain());
+        StateGraph mappedGraph = StateGraphFile.open(file);
+
+        assertThat(mappedGraph.getStateCount(), is(graph.getStateCount()));
+        assertThat(mappedGraph.getEdgeCount(), is(graph.getEdgeCount()));
+        for (State state : task.getDomain().getStates()) {
+            int id = mappedGraph.getId(state);
+            assertThat(mappedGraph.getState(id).getDescription(), is(state.getDescription()));
+            assertThat(getOutgoing(mappedGraph, id), is(getOutgoing(graph, graph.getId(state))));
+        }
+
+        assertThat(mappedGraph.getId(() -> "Unknown state"), is(StateGraph.UNKNOWN));
+    }
+
+    @Test
+    public void testSolveMappedGraph() throws IOException {
+        Random random = new Random(42);
+
+        for (GraphSearchMode searchMode : GraphSearchMode.values()) {
+            ClassicalPlanningSolver solver = new ClassicalPlanningSolver(searchMode);
+
+            for (int run = 0; run < 10; run++) {
+                ClassicalPlanningTask task = SimpleSolverTest.createRandomTask(random, 500, 3);
+                Path file = folder.newFile().toPath();
+                StateGraphFile.write(task.getDomain(), file);
+                MappedStateGraph mappedGraph = StateGraphFile.open(file);
+
+                Optional<List<Action>> expected = solver.getBestSolution(task);
+                Optional<List<Action>> solution = solver.getBestSolution(mappedGraph, task.getInitialState(), task.getGoalStates());
+
+                assertThat(solution.isPresent(), is(expected.isPresent()));
+                if (solution.isPresent()) {
+                    assertThat(getDescriptions(solution.get()), is(getDescriptions(expected.get())));
+
+                    State currentState = task.getInitialState();
+                    for (Action action : solution.get()) {
+                        currentState = solver.applyTransitionFunction(action, currentState, mappedGraph);
+                    }
+                    Set<String> goals = task.getGoalStates().stream().map(State::getDescription).collect(Collectors.toSet());
+                    assertTrue(goals.contains(currentState.getDescription()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLookupInLargeGraph() throws IOException {
+        // more states than a 16 bit slot index could spread
+        int stateCount = 70000;
+        Action action = () -> "Next";
+        List<State> states = Lists.newArrayList();
+        Set<StateTransitionFunction> transitions = Sets.newHashSet();
+        for (int i = 0; i < stateCount; i++) {
+            String description = "State " + i;
+            states.add(() -> description);
+            if (i > 0) {
+                transitions.add(new StateTransitionFunction(states.get(i - 1), states.get(i), action));
+            }
+        }
+
+        Path file = folder.newFile().toPath();
+        StateGraphFile.write(new Domain(Sets.newHashSet(action), Sets.newHashSet(states), transitions), file);
+        MappedStateGraph mappedGraph = StateGraphFile.open(file);
+
+        assertThat(mappedGraph.getStateCount(), is(stateCount));
+        for (State state : states) {
+            assertThat(mappedGraph.getState(mappedGraph.getId(state)).getDescription(), is(state.getDescription()));
+        }
+        assertThat(mappedGraph.getId(() -> "State " + stateCount), is(StateGraph.UNKNOWN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateStateDescriptionsAreRejected() throws IOException {
+        State s1 = () -> "State";
+        State s2 = () -> "State";
+        Action action = () -> "Action";
+
+        Domain domain = new Domain(Sets.newHashSet(action), Sets.newHashSet(s1, s2), Sets.newHashSet(new StateTransitionFunction(s1, s2, action)));
+        StateGraphFile.write(domain, folder.newFile().toPath());
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "no graph".getBytes());
+        StateGraphFile.open(file);
+    }
+
+    private Set<String> getOutgoing(StateGraph graph, int state) {
+        Set<String> outgoing = Sets.newHashSet();
+        for (int edge = graph.getFirstEdge(state); edge < graph.getLastEdge(state); edge++) {
+            outgoing.add(graph.getAction(graph.getEdgeAction(edge)).getDescription() + " -> " + graph.getState(graph.getEdgeTarget(edge)).getDescription());
+        }
+        return outgoing;
+    }
+
+    private List<String> getDescriptions(List<Action> plan) {
+        return plan.stream().map(Action::getDescription).collect(Collectors.toList());
+    }
+}
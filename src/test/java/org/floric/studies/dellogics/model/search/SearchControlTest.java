@@ -0,0 +1,107 @@
+package org.floric.studies.dellogics.model.search;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class SearchControlTest {
+    private static final int SIZE = 200;
+    private static final int GOAL = encode(150, 150);
+
+    // open grid, states are x * SIZE + y and actions the target states
+    private static final SearchProblem<Integer, Integer> GRID = new SearchProblem<Integer, Integer>() {
+        @Override
+        public Integer getInitialState() {
+            return 0;
+        }
+
+        @Override
+        public boolean isGoal(Integer state) {
+            return state == GOAL;
+        }
+
+        @Override
+        public List<Successor<Integer, Integer>> getSuccessors(Integer state) {
+            int x = state / SIZE;
+            int y = state % SIZE;
+            List<Successor<Integer, Integer>> successors = Lists.newArrayList();
+            int[][] moves = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+            for (int[] move : moves) {
+                int newX = x + move[0];
+                int newY = y + move[1];
+                if (newX >= 0 && newX < SIZE && newY >= 0 && newY < SIZE) {
+                    successors.add(new Successor<>(encode(newX, newY), encode(newX, newY)));
+                }
+            }
+            return successors;
+        }
+    };
+
+    private static final Heuristic<Integer> MANHATTAN = state -> Math.abs(state / SIZE - GOAL / SIZE) + Math.abs(state % SIZE - GOAL % SIZE);
+
+    @Test
+    public void testAnytimeSearchKeepsBestPlanWhenStopped() {
+        SearchControl control = new SearchControl();
+        control.setNodeBudget(2000);
+
+        AnytimeSearch<Integer, Integer> search = new AnytimeSearch<>(MANHATTAN);
+        Optional<List<Integer>> plan = search.search(GRID, control);
+
+        // the first weighted iteration finds a plan, proving it optimal needs many more nodes
+        assertTrue(plan.isPresent());
+        assertThat(plan.get().size(), is(300));
+        assertThat(search.getStatistics().getStatus(), is(SearchStatus.NODE_LIMIT));
+        assertThat(search.getStatistics().getExpandedNodes(), is(2000L));
+    }
+
+    @Test
+    public void testAnytimeSearchFinishesWithOptimalPlan() {
+        AnytimeSearch<Integer, Integer> search = new AnytimeSearch<>(MANHATTAN, 3, 1);
+        Optional<List<Integer>> plan = search.search(GRID);
+
+        assertTrue(plan.isPresent());
+        assertThat(plan.get().size(), is(300));
+        assertThat(search.getStatistics().getStatus(), is(SearchStatus.SOLVED));
+    }
+
+    @Test
+    public void testProgressIsReportedAndSearchCanBeCancelled() {
+        SearchControl control = new SearchControl();
+        control.setProgressIntervalMillis(0);
+        List<SearchProgress> progress = Lists.newArrayList();
+        control.setProgressListener(update -> {
+            progress.add(update);
+            if (progress.size() == 3) {
+                control.getCancellationToken().cancel();
+            }
+        });
+
+        BreadthFirstSearch<Integer, Integer> search = new BreadthFirstSearch<>();
+        assertFalse(search.search(GRID, control).isPresent());
+
+        assertThat(progress.size(), is(3));
+        assertTrue(progress.get(2).getExpandedNodes() > progress.get(0).getExpandedNodes());
+        assertThat(progress.get(0).getBestPlanLength(), is(SearchProgress.NO_PLAN));
+        assertThat(search.getStatistics().getStatus(), is(SearchStatus.CANCELLED));
+    }
+
+    @Test
+    public void testTimeBudget() {
+        SearchControl control = new SearchControl();
+        control.setTimeBudgetMillis(0);
+
+        BestFirstSearch<Integer, Integer> search = BestFirstSearch.uniformCost();
+        assertFalse(search.search(GRID, control).isPresent());
+        assertThat(search.getStatistics().getStatus(), is(SearchStatus.TIME_LIMIT));
+    }
+
+    private static int encode(int x, int y) {
+        return x * SIZE + y;
+    }
+}
@@ -4,6 +4,8 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.floric.studies.dellogics.model.strips.exceptions.InvalidPredicateException;
 import org.floric.studies.dellogics.model.strips.exceptions.NoNegPredicatesAllowedException;
+import org.floric.studies.dellogics.model.strips.grounding.AtomTable;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -116,6 +118,22 @@ public class ActionSchemeTest {
         assertTrue(scheme.canApply(symbols, Sets.newHashSet(new InstancedPredicate(predicateTypeA, true, symbols))));
     }
 
+    @Test
+    public void testCanApplyWithNegativePreCondition() throws Exception {
+        scheme.setPreConditions(Sets.newHashSet(new Predicate(isWrapped, false, "varA")));
+        Set<InstancedPredicate> wrappedState = Sets.newHashSet(InstancedPredicate.of(isWrapped, symbols));
+
+        assertTrue(scheme.canApply(symbols, Sets.newHashSet()));
+        assertFalse(scheme.canApply(symbols, wrappedState));
+        assertFalse(scheme.canApply(symbols, IndexedState.of(wrappedState)));
+        assertTrue(scheme.canApply(symbols, Sets.newHashSet(InstancedPredicate.of(isWrapped, new Symbol("Something else")))));
+
+        // the packed path has to agree
+        AtomTable atoms = new AtomTable();
+        assertFalse(scheme.canApply(symbols, atoms.encode(wrappedState), atoms));
+        assertTrue(scheme.canApply(symbols, PackedState.empty(), atoms));
+    }
+
     @Test
     public void testCanApplyWithInvalidPreConditions() throws Exception {
         scheme.setPreConditions(Sets.newHashSet(predicateA));
@@ -160,7 +178,8 @@ public class ActionSchemeTest {
         scheme.apply(Lists.newArrayList(), Sets.newHashSet());
     }
 
-    @Test
+    // the negated precondition is violated by the state
+    @Test(expected = RuntimeException.class)
     public void testApplyWithInvalidPreConditionsWithNegation() {
         PredicateType predicateTypeA = new PredicateType("A", 1);
         Predicate predicateA = new Predicate(predicateTypeA,"varA");
@@ -216,4 +235,87 @@ public class ActionSchemeTest {
 
         scheme.apply(Lists.newArrayList(elemInstance), oldState);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPackedApplyMatchesSetApply() {
+        Symbol presentA = new Symbol("PresentA");
+        Symbol presentB = new Symbol("PresentB");
+        Set<InstancedPredicate> state = Sets.newHashSet(
+                new InstancedPredicate(isPresent, presentA),
+                new InstancedPredicate(isPresent, presentB)
+        );
+
+        scheme.setPreConditions(Sets.newHashSet(new Predicate(isPresent, "varA"), new Predicate(isWrapped, false, "varA")));
+        scheme.setEffects(Sets.newHashSet(new Predicate(isWrapped, "varA"), new Predicate(isPresent, false, "varA")));
+
+        AtomTable atoms = new AtomTable();
+        PackedState packedState = atoms.encode(state);
+        List<Symbol> usedSymbols = Lists.newArrayList(presentA);
+
+        assertTrue(scheme.canApply(usedSymbols, packedState, atoms));
+        PackedState newPackedState = scheme.apply(usedSymbols, packedState, atoms);
+
+        assertThat(atoms.decode(newPackedState), is(scheme.apply(usedSymbols, state)));
+        assertThat(newPackedState, is(atoms.encode(scheme.apply(usedSymbols, state))));
+    }
+
+    @Test
+    public void testPackedCanApplyWithNegativePreConditions() {
+        scheme.setPreConditions(Sets.newHashSet(new Predicate(isWrapped, false, "varA")));
+
+        AtomTable atoms = new AtomTable();
+        assertTrue(scheme.canApply(symbols, atoms.encode(Sets.newHashSet()), atoms));
+        assertFalse(scheme.canApply(symbols, atoms.encode(Sets.newHashSet(new InstancedPredicate(isWrapped, symbols))), atoms));
+    }
+
+    @Test
+    public void testApplyKeepsPredecessorStateUnchanged() {
+        Symbol presentA = new Symbol("PresentA");
+        InstancedPredicate presentInstance = InstancedPredicate.of(isPresent, presentA);
+        Set<InstancedPredicate> state = IndexedState.builder().add(isPresent, presentA).build();
+
+        assertTrue(presentInstance == InstancedPredicate.of(isPresent, Lists.newArrayList(presentA)));
+        assertTrue(state.contains(new InstancedPredicate(isPresent, presentA)));
+
+        scheme.setEffects(Sets.newHashSet(new Predicate(isPresent, false, "varA"), new Predicate(isWrapped, "varA")));
+        Set<InstancedPredicate> newState = scheme.apply(Lists.newArrayList(presentA), state);
+
+        assertThat(state.size(), is(1));
+        assertTrue(state.contains(presentInstance));
+        assertTrue(presentInstance.isState());
+        assertThat(newState, is(Sets.newHashSet(InstancedPredicate.of(isWrapped, presentA))));
+    }
+
+    @Test(expected = InvalidPredicateException.class)
+    public void testCompileWithInvalidEffectsPredicateParameterName() {
+        scheme.setEffects(Sets.newHashSet(new Predicate(isWrapped, "varX")));
+
+        scheme.compile();
+    }
+
+    @Test
+    public void testCompiledApplyMatchesApply() {
+        Symbol presentA = new Symbol("PresentA");
+        Set<InstancedPredicate> state = IndexedState.builder().add(isPresent, presentA).build();
+        scheme.setPreConditions(Sets.newHashSet(new Predicate(isPresent, "varA")));
+        scheme.setEffects(Sets.newHashSet(new Predicate(isPresent, false, "varA"), new Predicate(isWrapped, "varA")));
+
+        CompiledActionScheme compiledScheme = scheme.compile();
+        List<Symbol> usedSymbols = Lists.newArrayList(presentA);
+
+        assertThat(compiledScheme.getAddEffects().size(), is(1));
+        assertThat(compiledScheme.getDeleteEffects().size(), is(1));
+        assertTrue(compiledScheme.canApply(usedSymbols, state));
+        assertThat(compiledScheme.apply(usedSymbols, state), is(scheme.apply(usedSymbols, state)));
+    }
+
+    @Test
+    public void testSettersInvalidateCompiledScheme() {
+        CompiledActionScheme compiledScheme = scheme.getCompiledScheme();
+        assertSame(compiledScheme, scheme.getCompiledScheme());
+
+        scheme.setEffects(Sets.newHashSet(new Predicate(isWrapped, "varA")));
+        assertNotSame(compiledScheme, scheme.getCompiledScheme());
+        assertThat(scheme.getCompiledScheme().getAddEffects().size(), is(1));
+    }
+}
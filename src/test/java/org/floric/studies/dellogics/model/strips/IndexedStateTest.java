@@ -0,0 +1,84 @@
+package org.floric.studies.dellogics.model.strips;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.exceptions.NoNegPredicatesAllowedException;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class IndexedStateTest {
+    private final PredicateType at = new PredicateType("At", 2);
+    private final PredicateType free = new PredicateType("Free", 1);
+    private final Symbol robot = new Symbol("Robot");
+    private final Symbol roomA = new Symbol("RoomA");
+    private final Symbol roomB = new Symbol("RoomB");
+
+    @Test
+    public void testApplySharesUnchangedBuckets() {
+        IndexedState state = IndexedState.builder()
+                .add(at, robot, roomA)
+                .add(free, roomB)
+                .build();
+
+        IndexedState successor = state.apply(
+                Lists.newArrayList(InstancedPredicate.of(at, robot, roomA)),
+                Lists.newArrayList(InstancedPredicate.of(at, robot, roomB)));
+
+        assertSame(state.getBucket(free), successor.getBucket(free));
+        assertNotSame(state.getBucket(at), successor.getBucket(at));
+
+        // the predecessor is left as it was
+        assertTrue(state.contains(InstancedPredicate.of(at, robot, roomA)));
+        assertFalse(state.contains(InstancedPredicate.of(at, robot, roomB)));
+        assertThat(state.size(), is(2));
+        assertTrue(successor.contains(InstancedPredicate.of(at, robot, roomB)));
+        assertFalse(successor.contains(InstancedPredicate.of(at, robot, roomA)));
+        assertThat(successor.size(), is(2));
+    }
+
+    @Test
+    public void testAddWinsOverDelete() {
+        InstancedPredicate instance = InstancedPredicate.of(free, roomA);
+        IndexedState state = IndexedState.builder().add(instance).build();
+
+        IndexedState successor = state.apply(Lists.newArrayList(instance), Lists.newArrayList(instance));
+        assertTrue(successor.contains(instance));
+        assertThat(successor.size(), is(1));
+
+        IndexedState emptySuccessor = IndexedState.builder().build().apply(Lists.newArrayList(instance), Lists.newArrayList(instance));
+        assertTrue(emptySuccessor.contains(instance));
+        assertThat(emptySuccessor.size(), is(1));
+    }
+
+    @Test
+    public void testBehavesLikeHashSet() {
+        Set<InstancedPredicate> expected = Sets.newHashSet(
+                InstancedPredicate.of(at, robot, roomA),
+                InstancedPredicate.of(free, roomA),
+                InstancedPredicate.of(free, roomB));
+        IndexedState state = IndexedState.of(expected);
+
+        assertThat(state.size(), is(expected.size()));
+        assertThat(state, is(expected));
+        assertThat(expected, is((Set<InstancedPredicate>) state));
+        assertThat(state.hashCode(), is(expected.hashCode()));
+        expected.forEach(instance -> assertTrue(state.contains(instance)));
+        assertFalse(state.contains(InstancedPredicate.of(at, robot, roomB)));
+        assertFalse(state.contains("no predicate"));
+
+        // duplicates are only counted once
+        IndexedState duplicated = IndexedState.builder().add(free, roomA).add(free, roomA).build();
+        assertThat(duplicated.size(), is(1));
+        assertThat(duplicated, is(Collections.singleton(InstancedPredicate.of(free, roomA))));
+    }
+
+    @Test(expected = NoNegPredicatesAllowedException.class)
+    public void testNegativeInstancesAreRejected() {
+        IndexedState.of(Lists.newArrayList(InstancedPredicate.of(free, false, Lists.newArrayList(roomA))));
+    }
+}
@@ -1,10 +1,28 @@
 package org.floric.studies.dellogics.model.strips;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchListener;
+import org.floric.studies.dellogics.model.search.SearchPhase;
+import org.floric.studies.dellogics.model.search.SearchResult;
+import org.floric.studies.dellogics.model.search.SearchStatistics;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.cache.PlanCache;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.Grounder;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+import org.floric.studies.dellogics.model.strips.heuristics.HeuristicType;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.*;
@@ -32,4 +50,206 @@ public class StripsSolverTest {
 
         assertTrue(StripsSolver.isContainingGoalState(currentState, task.getGoalFormula()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void checkAllSearchModesFindOptimalSolution() {
+        StripsPlanningTask task = new StripsExample().createTask();
+
+        for (SearchMode mode : SearchMode.values()) {
+            StripsSolver solver = new StripsSolver(mode);
+            Optional<List<ActionApplication>> solution = solver.getBestSolution(task);
+
+            assertTrue(solution.isPresent());
+            assertThat(solution.get().size(), is(4));
+            assertTrue(solver.getStatistics().getExpandedNodes() > 0);
+            assertThat(solver.getStatistics().getStatus(), is(SearchStatus.SOLVED));
+        }
+    }
+
+    @Test
+    public void checkAllSearchModesRespectNegativePreconditions() {
+        StripsPlanningTask task = createBlockedTask();
+
+        for (SearchMode mode : SearchMode.values()) {
+            StripsSolver solver = new StripsSolver(mode);
+            solver.setMaxHorizon(3);
+            assertFalse(solver.getBestSolution(task).isPresent());
+        }
+    }
+
+    @Test
+    public void checkConcurrentSearchesGetTheirOwnStatistics() throws Exception {
+        StripsPlanningTask solvableTask = new StripsExample().createTask();
+        StripsPlanningTask blockedTask = createBlockedTask();
+        StripsSolver solver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        solver.setPlanCache(new PlanCache(100, 60_000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<SearchResult<ActionApplication>>> solvable = Lists.newArrayList();
+            List<Future<SearchResult<ActionApplication>>> blocked = Lists.newArrayList();
+            for (int i = 0; i < 20; i++) {
+                solvable.add(executor.submit(() -> solver.findSolution(solvableTask)));
+                blocked.add(executor.submit(() -> solver.findSolution(blockedTask)));
+            }
+
+            for (Future<SearchResult<ActionApplication>> result : solvable) {
+                assertThat(result.get().getStatistics().getStatus(), is(SearchStatus.SOLVED));
+                assertThat(result.get().getPlan().get().size(), is(4));
+            }
+            for (Future<SearchResult<ActionApplication>> result : blocked) {
+                assertThat(result.get().getStatistics().getStatus(), is(SearchStatus.UNSOLVABLE));
+                assertFalse(result.get().getPlan().isPresent());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void checkSearchStopsAtLimits() {
+        StripsPlanningTask task = new StripsExample().createTask();
+
+        SearchControl nodeLimit = new SearchControl();
+        nodeLimit.setNodeBudget(1);
+        StripsSolver solver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        assertFalse(solver.getBestSolution(task, nodeLimit).isPresent());
+        assertThat(solver.getStatistics().getStatus(), is(SearchStatus.NODE_LIMIT));
+
+        SearchControl cancelled = new SearchControl();
+        cancelled.getCancellationToken().cancel();
+        for (SearchMode mode : SearchMode.values()) {
+            solver = new StripsSolver(mode);
+            assertFalse(solver.getBestSolution(task, cancelled).isPresent());
+            assertThat(solver.getStatistics().getStatus(), is(SearchStatus.CANCELLED));
+        }
+    }
+
+    @Test
+    public void checkListenerReceivesPhasesAndStatistics() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        List<SearchPhase> phases = Lists.newArrayList();
+        List<SearchStatistics> summaries = Lists.newArrayList();
+
+        SearchControl control = new SearchControl();
+        control.setListener(new SearchListener() {
+            @Override
+            public void onPhaseFinished(SearchPhase phase, long nanos) {
+                phases.add(phase);
+            }
+
+            @Override
+            public void onSearchFinished(SearchStatistics statistics) {
+                summaries.add(statistics);
+            }
+        });
+
+        SearchResult<ActionApplication> result = new StripsSolver(SearchMode.BREADTH_FIRST).findSolution(task, control);
+
+        assertThat(result.getPlan().get().size(), is(4));
+        assertThat(phases, is(Arrays.asList(SearchPhase.GROUNDING, SearchPhase.SEARCH)));
+        assertThat(summaries.size(), is(1));
+
+        SearchStatistics statistics = result.getStatistics();
+        assertThat(summaries.get(0), is(statistics));
+        assertTrue(statistics.getPhaseNanos(SearchPhase.GROUNDING) > 0);
+        assertTrue(statistics.getPhaseNanos(SearchPhase.APPLICABILITY) > 0);
+        assertTrue(statistics.getPhaseNanos(SearchPhase.APPLICATION) > 0);
+        assertTrue(statistics.getDuplicateNodes() > 0);
+        assertTrue(statistics.getPeakOpenNodes() > 0);
+        assertTrue(statistics.getBranchingFactor() > 1);
+
+        // without listener the successor steps are not timed
+        SearchStatistics unobserved = new StripsSolver(SearchMode.BREADTH_FIRST).findSolution(task).getStatistics();
+        assertThat(unobserved.getPhaseNanos(SearchPhase.APPLICABILITY), is(0L));
+        assertThat(unobserved.getExpandedNodes(), is(statistics.getExpandedNodes()));
+    }
+
+    @Test
+    public void checkSolutionsAreStreamedInNondecreasingLength() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        List<List<ActionApplication>> solutions = new StripsSolver().getSolutions(task).collect(Collectors.toList());
+
+        // same plans as the exhaustive enumeration: wrap at home or at the PO
+        assertThat(solutions.size(), is(2));
+        assertThat(solutions.get(0).size(), is(4));
+        assertThat(Sets.newHashSet(solutions).size(), is(2));
+
+        for (int i = 0; i < solutions.size(); i++) {
+            assertTrue(i == 0 || solutions.get(i - 1).size() <= solutions.get(i).size());
+
+            Set<InstancedPredicate> currentState = task.getStartingState();
+            for (ActionApplication action : solutions.get(i)) {
+                assertFalse(StripsSolver.isContainingGoalState(currentState, task.getGoalFormula()));
+                currentState = action.getActionScheme().apply(action.getSymbols(), currentState);
+            }
+            assertTrue(StripsSolver.isContainingGoalState(currentState, task.getGoalFormula()));
+        }
+    }
+
+    @Test
+    public void checkGraphSearchExpandsLessThanAllPlans() {
+        StripsPlanningTask task = new StripsExample().createTask();
+
+        StripsSolver allPlansSolver = new StripsSolver(SearchMode.ALL_PLANS);
+        allPlansSolver.getBestSolution(task);
+        StripsSolver breadthFirstSolver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        breadthFirstSolver.getBestSolution(task);
+
+        assertTrue(breadthFirstSolver.getStatistics().getGeneratedNodes() < allPlansSolver.getStatistics().getGeneratedNodes());
+    }
+
+    @Test
+    public void checkHeuristicsGuideSearch() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        GroundedTask groundedTask = new Grounder().ground(task);
+        PackedState initialState = groundedTask.getInitialState();
+
+        int maxEstimate = HeuristicType.MAX.create(groundedTask).estimate(initialState);
+        int additiveEstimate = HeuristicType.ADDITIVE.create(groundedTask).estimate(initialState);
+        int ffEstimate = HeuristicType.FF.create(groundedTask).estimate(initialState);
+
+        // h_max is admissible, the optimal plan has 4 steps
+        assertTrue(maxEstimate > 0 && maxEstimate <= 4);
+        assertTrue(additiveEstimate >= maxEstimate);
+        assertTrue(ffEstimate >= maxEstimate && ffEstimate <= additiveEstimate);
+        assertThat(HeuristicType.FF.create(groundedTask).estimate(groundedTask.getGoal()), is(0));
+
+        for (HeuristicType heuristicType : HeuristicType.values()) {
+            Optional<List<ActionApplication>> solution = new StripsSolver(SearchMode.A_STAR, heuristicType).getBestSolution(task);
+
+            assertTrue(solution.isPresent());
+            assertThat(solution.get().size(), is(4));
+        }
+    }
+
+    @Test
+    public void checkParallelSearchReportsWorkers() {
+        StripsPlanningTask task = new StripsExample().createTask();
+
+        StripsSolver solver = new StripsSolver(SearchMode.PARALLEL_BREADTH_FIRST);
+        solver.setParallelism(4);
+        Optional<List<ActionApplication>> solution = solver.getBestSolution(task);
+
+        assertTrue(solution.isPresent());
+        assertThat(solution.get().size(), is(4));
+
+        long[] workerExpandedNodes = solver.getStatistics().getWorkerExpandedNodes();
+        assertThat(workerExpandedNodes.length, is(4));
+        assertThat(Arrays.stream(workerExpandedNodes).sum(), is(solver.getStatistics().getExpandedNodes()));
+    }
+
+    // the only action needs P to be false, but P holds from the start
+    private static StripsPlanningTask createBlockedTask() {
+        PredicateType p = new PredicateType("P", 1);
+        PredicateType r = new PredicateType("R", 1);
+        Symbol object = new Symbol("O");
+        ActionScheme scheme = new ActionScheme(new Predicate(new PredicateType("Make", 1), "x"),
+                Sets.newHashSet(new Predicate(p, false, "x")),
+                Sets.newHashSet(new Predicate(r, "x")));
+
+        return new StripsPlanningTask(Sets.newHashSet(scheme),
+                Sets.newHashSet(InstancedPredicate.of(p, object)),
+                Sets.newHashSet(InstancedPredicate.of(r, object)));
+    }
+}
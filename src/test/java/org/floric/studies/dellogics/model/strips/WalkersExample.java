@@ -0,0 +1,37 @@
+package org.floric.studies.dellogics.model.strips;
+
+import org.floric.studies.dellogics.model.strips.pddl.PddlDomain;
+import org.floric.studies.dellogics.model.strips.pddl.PddlParser;
+
+import java.io.StringReader;
+
+// agents walking along a road, shared by the tests of the pruning and the other search modes
+public class WalkersExample {
+    public static final String DOMAIN = String.join("\n",
+            "(define (domain walkers)",
+            "  (:requirements :strips :typing)",
+            "  (:types agent location - object)",
+            "  (:predicates (at ?a - agent ?l - location) (road ?from ?to - location))",
+            "  (:action go",
+            "    :parameters (?a - agent ?from ?to - location)",
+            "    :precondition (and (at ?a ?from) (road ?from ?to))",
+            "    :effect (and (at ?a ?to) (not (at ?a ?from)))))");
+
+    // three agents walking the same road, every order of their steps leads to the goal
+    public static final String PROBLEM = String.join("\n",
+            "(define (problem walkers-3)",
+            "  (:domain walkers)",
+            "  (:objects a b c - agent l0 l1 l2 l3 - location)",
+            "  (:init (at a l0) (at b l0) (at c l0) (road l0 l1) (road l1 l2) (road l2 l3) (road l1 l0) (road l2 l1) (road l3 l2))",
+            "  (:goal (and (at a l3) (at b l3) (at c l3))))");
+
+    public StripsPlanningTask createTask() {
+        return createTask(PROBLEM);
+    }
+
+    public StripsPlanningTask createTask(String problem) {
+        PddlParser parser = new PddlParser();
+        PddlDomain domain = parser.parseDomain(new StringReader(DOMAIN));
+        return parser.parseProblem(domain, new StringReader(problem));
+    }
+}
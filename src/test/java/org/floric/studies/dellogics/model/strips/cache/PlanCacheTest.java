@@ -0,0 +1,136 @@
+package org.floric.studies.dellogics.model.strips.cache;
+
+import com.google.common.collect.Lists;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.*;
+import org.floric.studies.dellogics.model.strips.heuristics.HeuristicType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.*;
+
+public class PlanCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFingerprintIgnoresOrderAndNames() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        StripsPlanningTask renamedTask = rename(task);
+
+        assertThat(TaskFingerprint.of(renamedTask).getKey(), is(TaskFingerprint.of(task).getKey()));
+
+        Set<InstancedPredicate> goal = new HashSet<>(task.getGoalFormula());
+        goal.remove(goal.iterator().next());
+        StripsPlanningTask otherTask = new StripsPlanningTask(task.getActions(), task.getStartingState(), goal);
+        assertThat(TaskFingerprint.of(otherTask).getKey(), is(not(TaskFingerprint.of(task).getKey())));
+    }
+
+    @Test
+    public void testCachedPlanIsMappedToRenamedTask() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        StripsPlanningTask renamedTask = rename(task);
+
+        StripsSolver solver = new StripsSolver(SearchMode.A_STAR);
+        solver.setPlanCache(new PlanCache(100, 60_000));
+        solver.getBestSolution(task);
+        assertTrue(solver.getStatistics().getExpandedNodes() > 0);
+
+        Optional<List<ActionApplication>> solution = solver.getBestSolution(renamedTask);
+        assertThat(solver.getStatistics().getExpandedNodes(), is(0L));
+        assertThat(solver.getStatistics().getStatus(), is(SearchStatus.SOLVED));
+        assertTrue(solution.isPresent());
+        assertThat(solution.get().size(), is(4));
+
+        Set<InstancedPredicate> currentState = renamedTask.getStartingState();
+        for (ActionApplication action : solution.get()) {
+            currentState = action.getActionScheme().apply(action.getSymbols(), currentState);
+        }
+        assertTrue(StripsSolver.isContainingGoalState(currentState, renamedTask.getGoalFormula()));
+    }
+
+    @Test
+    public void testPlansOfOtherOptionsAreNotReused() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        PlanCache cache = new PlanCache(100, 60_000);
+
+        StripsSolver solver = new StripsSolver(SearchMode.GREEDY_BEST_FIRST, HeuristicType.FF);
+        solver.setPlanCache(cache);
+        solver.getBestSolution(task);
+        solver.getBestSolution(task);
+        assertThat(solver.getStatistics().getExpandedNodes(), is(0L));
+
+        // another heuristic or other pruning may return another plan
+        StripsSolver otherHeuristicSolver = new StripsSolver(SearchMode.GREEDY_BEST_FIRST, HeuristicType.GOAL_COUNT);
+        otherHeuristicSolver.setPlanCache(cache);
+        otherHeuristicSolver.getBestSolution(task);
+        assertTrue(otherHeuristicSolver.getStatistics().getExpandedNodes() > 0);
+
+        StripsSolver pruningSolver = new StripsSolver(SearchMode.GREEDY_BEST_FIRST, HeuristicType.FF);
+        pruningSolver.setPlanCache(cache);
+        pruningSolver.setPruningPartialOrders(true);
+        pruningSolver.getBestSolution(task);
+        assertTrue(pruningSolver.getStatistics().getExpandedNodes() > 0);
+
+        // custom heuristics have no name to be told apart by, so they are never cached
+        StripsSolver customSolver = new StripsSolver(SearchMode.GREEDY_BEST_FIRST, HeuristicType.FF::create);
+        customSolver.setPlanCache(cache);
+        customSolver.getBestSolution(task);
+        customSolver.getBestSolution(task);
+        assertTrue(customSolver.getStatistics().getExpandedNodes() > 0);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        PlanCache cache = new PlanCache(100, 60_000);
+        List<CanonicalStep> plan = Lists.newArrayList(new CanonicalStep(0, Lists.newArrayList(1, 2)), new CanonicalStep(2, Lists.newArrayList()));
+        cache.put("a", plan);
+        cache.put("b", Lists.newArrayList());
+
+        Path file = folder.getRoot().toPath().resolve("plans.txt");
+        cache.save(file);
+        PlanCache loadedCache = new PlanCache(100, 60_000);
+        loadedCache.load(file);
+
+        assertThat(loadedCache.size(), is(2L));
+        assertThat(loadedCache.get("a").get(), is(plan));
+        assertTrue(loadedCache.get("b").get().isEmpty());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPlansAreEvicted() {
+        PlanCache cache = new PlanCache(2, 60_000);
+        cache.put("a", Lists.newArrayList());
+        cache.put("b", Lists.newArrayList());
+        cache.get("a");
+        cache.put("c", Lists.newArrayList());
+
+        assertThat(cache.size(), is(2L));
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+    }
+
+    // renames all symbols and builds the states in reverse order
+    private StripsPlanningTask rename(StripsPlanningTask task) {
+        return new StripsPlanningTask(task.getActions(), rename(task.getStartingState()), rename(task.getGoalFormula()));
+    }
+
+    private Set<InstancedPredicate> rename(Set<InstancedPredicate> state) {
+        List<InstancedPredicate> predicates = Lists.newArrayList(state);
+        Collections.reverse(predicates);
+
+        return IndexedState.of(predicates.stream()
+                .map(predicate -> InstancedPredicate.of(predicate.getType(), predicate.getSymbols().stream()
+                        .map(symbol -> new Symbol("renamed" + symbol.getName().hashCode()))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,210 @@
+package org.floric.studies.dellogics.model.strips.grounding;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.*;
+import org.junit.Test;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class GrounderTest {
+    @Test
+    public void testStaticPredicatesArePruned() {
+        StripsPlanningTask task = new StripsExample().createTask();
+
+        Set<String> staticTypes = Grounder.getStaticPredicateTypes(task.getActions()).stream()
+                .map(PredicateType::getName)
+                .collect(Collectors.toSet());
+        assertThat(staticTypes.size(), is(3));
+        assertTrue(staticTypes.contains("IsAgent"));
+        assertTrue(staticTypes.contains("IsLocation"));
+        assertTrue(staticTypes.contains("IsObject"));
+
+        GroundedTask groundedTask = new Grounder().ground(task);
+
+        // Go: 1 agent * 2 * 2 locations, PickUp: 1 agent * 1 object * 2 locations, Wrap: 1 agent * 1 object
+        assertThat(groundedTask.getActions().size(), is(7));
+    }
+
+    @Test
+    public void testGroundActionsMatchActionSchemes() {
+        StripsPlanningTask task = new StripsExample().createTask();
+        GroundedTask groundedTask = new Grounder().ground(task);
+        AtomTable atoms = groundedTask.getAtoms();
+        PackedState state = groundedTask.getInitialState();
+
+        for (GroundAction action : groundedTask.getActions()) {
+            boolean canApply = action.getApplication().getActionScheme().canApply(action.getApplication().getSymbols(), state, atoms);
+            assertThat(action.isApplicable(state), is(canApply));
+
+            if (canApply) {
+                PackedState expected = action.getApplication().getActionScheme().apply(action.getApplication().getSymbols(), state, atoms);
+                assertThat(action.apply(state), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testSuccessorGeneratorMatchesApplicableActions() {
+        GroundedTask groundedTask = new Grounder().ground(new StripsExample().createTask());
+        SuccessorGenerator generator = new SuccessorGenerator(groundedTask.getActions());
+
+        // walk through all reachable states and compare with the naive check
+        Set<PackedState> visited = Sets.newHashSet(groundedTask.getInitialState());
+        Deque<PackedState> open = Queues.newArrayDeque(visited);
+        while (!open.isEmpty()) {
+            PackedState state = open.poll();
+
+            Set<GroundAction> expected = groundedTask.getActions().stream()
+                    .filter(action -> action.isApplicable(state))
+                    .collect(Collectors.toSet());
+            List<GroundAction> applicable = generator.getApplicableActions(state);
+
+            assertThat(applicable.size(), is(expected.size()));
+            assertThat(Sets.newHashSet(applicable), is(expected));
+
+            applicable.stream()
+                    .map(action -> action.apply(state))
+                    .filter(visited::add)
+                    .forEach(open::add);
+        }
+
+        assertTrue(visited.size() > 1);
+    }
+
+    @Test
+    public void testGoalTrackerMatchesFullGoalCount() {
+        GroundedTask groundedTask = new Grounder().ground(new StripsExample().createTask());
+        GoalTracker goalTracker = new GoalTracker(groundedTask);
+        PackedState goal = groundedTask.getGoal();
+
+        PackedState state = goalTracker.track(groundedTask.getInitialState());
+        assertThat(state.getUnsatisfiedGoals(), is(2));
+
+        // follow random applicable actions and compare with counting from scratch
+        Random random = new Random(42);
+        for (int step = 0; step < 50; step++) {
+            List<GroundAction> applicable = new SuccessorGenerator(groundedTask.getActions()).getApplicableActions(state);
+            state = goalTracker.apply(state, applicable.get(random.nextInt(applicable.size())));
+
+            int expected = goal.cardinality() - (int) goal.toBitSet().stream().filter(state::contains).count();
+            assertThat(state.getUnsatisfiedGoals(), is(expected));
+        }
+    }
+
+    @Test
+    public void testZobristHashMatchesFullHash() {
+        GroundedTask groundedTask = new Grounder().ground(new StripsExample().createTask());
+        ZobristHasher hasher = new ZobristHasher(groundedTask);
+        SuccessorGenerator generator = new SuccessorGenerator(groundedTask.getActions());
+
+        PackedState state = hasher.track(groundedTask.getInitialState());
+
+        // follow random applicable actions and compare with hashing from scratch
+        Random random = new Random(42);
+        for (int step = 0; step < 50; step++) {
+            List<GroundAction> applicable = generator.getApplicableActions(state);
+            GroundAction action = applicable.get(random.nextInt(applicable.size()));
+            state = action.apply(state, PackedState.UNKNOWN_GOAL_COUNT, hasher.getSuccessorHash(state, action));
+
+            assertThat(state.getZobristHash(), is(hasher.hash(state.withZobristHash(PackedState.UNKNOWN_ZOBRIST_HASH))));
+        }
+    }
+
+    @Test
+    public void testPackedStateSetMatchesHashSet() {
+        // enough atoms and states to span several words and let the table grow a few times
+        AtomTable atoms = new AtomTable();
+        PredicateType type = new PredicateType("At", 1);
+        for (int i = 0; i < 150; i++) {
+            atoms.getOrCreateId(type, Lists.newArrayList(new Symbol("s" + i)));
+        }
+        GroundedTask groundedTask = new GroundedTask(atoms, Lists.newArrayList(), PackedState.empty(), PackedState.empty());
+        ZobristHasher hasher = new ZobristHasher(groundedTask);
+
+        for (boolean isOffHeap : new boolean[]{false, true}) {
+            PackedStateSet closed = new PackedStateSet(hasher, atoms.size(), isOffHeap);
+            Set<PackedState> expected = Sets.newHashSet();
+            Random random = new Random(7);
+
+            for (int i = 0; i < 20000; i++) {
+                PackedState state = PackedState.of(random.ints(random.nextInt(4), 0, atoms.size()).toArray());
+                boolean isNew = expected.add(state);
+
+                assertThat(closed.contains(state), is(!isNew));
+                assertThat(closed.add(state), is(isNew));
+                assertTrue(closed.contains(state));
+            }
+
+            assertThat(closed.size(), is(expected.size()));
+            assertTrue(closed.size() > 1000);
+            // a slot holds the hash and three words, the table is at least 3/8 full after growing
+            assertTrue(closed.getMemoryBytes() <= closed.size() * 4L * Long.BYTES * 8 / 3);
+        }
+    }
+
+    @Test
+    public void testTaskReducerRemovesUnneededActions() {
+        // a letter waits at the post office as well, nobody needs it
+        StripsPlanningTask task = withLetter(new StripsExample().createTask(), true, false);
+        GroundedTask groundedTask = new Grounder().ground(task);
+
+        TaskReducer reducer = new TaskReducer();
+        GroundedTask reducedTask = reducer.reduce(groundedTask);
+        ReductionReport report = reducer.getReport();
+
+        assertTrue(report.isGoalReachable());
+        assertThat(report.getActions(), is(groundedTask.getActions().size()));
+        assertThat(report.getKeptActions(), is(reducedTask.getActions().size()));
+        assertTrue(report.getKeptActions() < report.getActions());
+        assertTrue(report.getKeptAtoms() < report.getAtoms());
+        assertTrue(reducedTask.getActions().stream()
+                .noneMatch(action -> action.getApplication().getSymbols().contains(new Symbol("Letter"))));
+
+        StripsSolver solver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        StripsSolver unreducedSolver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        unreducedSolver.setReducingTask(false);
+
+        assertThat(solver.getBestSolution(task).get().size(), is(4));
+        assertThat(unreducedSolver.getBestSolution(task).get().size(), is(4));
+        assertTrue(solver.getStatistics().getExpandedNodes() < unreducedSolver.getStatistics().getExpandedNodes());
+        assertThat(solver.getReductionReport(), is(report));
+    }
+
+    @Test
+    public void testUnreachableGoalIsDetectedBeforeSearch() {
+        // the letter isn't an object, so nobody can pick it up and wrap it
+        StripsPlanningTask task = withLetter(new StripsExample().createTask(), false, true);
+
+        StripsSolver solver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        assertFalse(solver.getBestSolution(task).isPresent());
+        assertFalse(solver.getReductionReport().isGoalReachable());
+        assertThat(solver.getStatistics().getStatus(), is(SearchStatus.UNSOLVABLE));
+        assertThat(solver.getStatistics().getExpandedNodes(), is(0L));
+    }
+
+    private static StripsPlanningTask withLetter(StripsPlanningTask task, boolean isObject, boolean isWrappedInGoal) {
+        Symbol letter = new Symbol("Letter");
+        Set<InstancedPredicate> startingState = Sets.newHashSet(task.getStartingState());
+        startingState.add(InstancedPredicate.of(new PredicateType("At", 2), letter, new Symbol("Postoffice")));
+        if (isObject) {
+            startingState.add(InstancedPredicate.of(new PredicateType("IsObject", 1), letter));
+        }
+
+        Set<InstancedPredicate> goal = Sets.newHashSet(task.getGoalFormula());
+        if (isWrappedInGoal) {
+            goal.add(InstancedPredicate.of(new PredicateType("Wrapped", 1), letter));
+        }
+
+        return new StripsPlanningTask(task.getActions(), startingState, goal);
+    }
+}
@@ -0,0 +1,86 @@
+package org.floric.studies.dellogics.model.strips.pddl;
+
+import org.floric.studies.dellogics.model.strips.*;
+import org.floric.studies.dellogics.model.strips.exceptions.PddlParseException;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class PddlParserTest {
+    private static final String DOMAIN = String.join("\n",
+            "; gripper with typed objects",
+            "(define (domain Gripper)",
+            "  (:requirements :strips :typing :negative-preconditions)",
+            "  (:types room ball gripper - object)",
+            "  (:predicates (at-robby ?r - room) (at ?b - ball ?r - room) (free ?g - gripper) (carry ?b - ball ?g - gripper))",
+            "  (:action move",
+            "    :parameters (?from ?to - room)",
+            "    :precondition (and (at-robby ?from) (not (at-robby ?to)))",
+            "    :effect (and (at-robby ?to) (not (at-robby ?from))))",
+            "  (:action pick",
+            "    :parameters (?b - ball ?r - room ?g - gripper)",
+            "    :precondition (and (at ?b ?r) (at-robby ?r) (free ?g))",
+            "    :effect (and (carry ?b ?g) (not (at ?b ?r)) (not (free ?g))))",
+            "  (:action drop",
+            "    :parameters (?b - ball ?r - room ?g - gripper)",
+            "    :precondition (and (carry ?b ?g) (at-robby ?r))",
+            "    :effect (and (at ?b ?r) (free ?g) (not (carry ?b ?g)))))");
+
+    private static final String PROBLEM = String.join("\n",
+            "(define (problem gripper-2)",
+            "  (:domain gripper)",
+            "  (:objects rooma roomb - room ball1 ball2 - ball left right - gripper)",
+            "  (:init (at-robby rooma) (free left) (free right) (at ball1 rooma) (at ball2 rooma))",
+            "  (:goal (and (at ball1 roomb) (at ball2 roomb))))");
+
+    @Test
+    public void testParseDomain() {
+        PddlDomain domain = new PddlParser().parseDomain(new StringReader(DOMAIN));
+
+        assertThat(domain.getName(), is("gripper"));
+        assertThat(domain.getPredicates().size(), is(4));
+        assertThat(domain.getPredicates().get("carry").getVariablesCount(), is(2));
+        assertThat(domain.getSupertypes().get("ball"), is("object"));
+        assertThat(domain.getActions().size(), is(3));
+
+        ActionScheme move = domain.getActions().stream()
+                .filter(action -> action.getPredicate().getType().getName().equals("move"))
+                .findFirst()
+                .get();
+        // two literals plus the type predicates of both parameters
+        assertThat(move.getPreConditions().size(), is(4));
+        assertThat(move.getEffects().size(), is(2));
+    }
+
+    @Test
+    public void testParseAndSolveProblem() {
+        PddlParser parser = new PddlParser();
+        PddlDomain domain = parser.parseDomain(new StringReader(DOMAIN));
+        StripsPlanningTask task = parser.parseProblem(domain, new StringReader(PROBLEM));
+
+        assertThat(task.getGoalFormula().size(), is(2));
+        assertTrue(task.getStartingState().contains(InstancedPredicate.of(new PredicateType("is-room", 1), new Symbol("roomb"))));
+
+        Optional<List<ActionApplication>> solution = new StripsSolver(SearchMode.A_STAR).getBestSolution(task);
+        assertTrue(solution.isPresent());
+        // pick both, move, drop both
+        assertThat(solution.get().size(), is(5));
+    }
+
+    @Test(expected = PddlParseException.class)
+    public void testUndeclaredPredicateIsRejected() {
+        PddlParser parser = new PddlParser();
+        PddlDomain domain = parser.parseDomain(new StringReader(DOMAIN));
+        parser.parseProblem(domain, new StringReader(PROBLEM.replace("(free left)", "(empty left)")));
+    }
+
+    @Test(expected = PddlParseException.class)
+    public void testConditionalEffectsAreRejected() {
+        new PddlParser().parseDomain(new StringReader(DOMAIN.replace("(and (at ?b ?r) (free ?g)", "(and (when (at ?b ?r) (free ?g))")));
+    }
+}
@@ -0,0 +1,58 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import com.google.common.collect.Sets;
+import org.floric.studies.dellogics.model.strips.*;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class ObjectSymmetriesTest {
+    @Test
+    public void testInterchangeableAgentsAreFound() {
+        ObjectSymmetries symmetries = ObjectSymmetries.of(new WalkersExample().createTask());
+
+        // the road tells all locations apart, the agents only differ in their names
+        assertThat(symmetries.getGroups().size(), is(1));
+        Set<String> names = symmetries.getGroups().get(0).stream().map(Symbol::getName).collect(Collectors.toSet());
+        assertThat(names, is(Sets.newHashSet("a", "b", "c")));
+        assertThat(symmetries.getSwaps().size(), is(3));
+
+        assertTrue(ObjectSymmetries.of(new StripsExample().createTask()).isEmpty());
+    }
+
+    @Test
+    public void testSymmetricStatesAreExpandedOnce() {
+        StripsPlanningTask task = new WalkersExample().createTask();
+
+        for (SearchMode mode : new SearchMode[]{SearchMode.BREADTH_FIRST, SearchMode.UNIFORM_COST, SearchMode.A_STAR}) {
+            StripsSolver solver = new StripsSolver(mode);
+            StripsSolver symmetrySolver = new StripsSolver(mode);
+            symmetrySolver.setPruningSymmetries(true);
+
+            Optional<List<ActionApplication>> expected = solver.getBestSolution(task);
+            Optional<List<ActionApplication>> solution = symmetrySolver.getBestSolution(task);
+
+            assertThat(solution.get().size(), is(expected.get().size()));
+            assertTrue(symmetrySolver.getStatistics().getExpandedNodes() < solver.getStatistics().getExpandedNodes());
+
+            // plans are built from the states really reached, so they work without mapping them back
+            Set<InstancedPredicate> state = task.getStartingState();
+            for (ActionApplication step : solution.get()) {
+                state = step.getActionScheme().apply(step.getSymbols(), state);
+            }
+            assertTrue(StripsSolver.isContainingGoalState(state, task.getGoalFormula()));
+        }
+
+        // three agents on four locations only leave 20 distinct placements
+        StripsSolver symmetrySolver = new StripsSolver(SearchMode.UNIFORM_COST);
+        symmetrySolver.setPruningSymmetries(true);
+        symmetrySolver.getBestSolution(task);
+        assertTrue(symmetrySolver.getStatistics().getExpandedNodes() <= 20);
+    }
+}
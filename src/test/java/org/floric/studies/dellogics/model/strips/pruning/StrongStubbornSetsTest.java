@@ -0,0 +1,38 @@
+package org.floric.studies.dellogics.model.strips.pruning;
+
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.SearchMode;
+import org.floric.studies.dellogics.model.strips.StripsPlanningTask;
+import org.floric.studies.dellogics.model.strips.StripsSolver;
+import org.floric.studies.dellogics.model.strips.WalkersExample;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class StrongStubbornSetsTest {
+    @Test
+    public void testIndependentActionsArePruned() {
+        StripsPlanningTask task = new WalkersExample().createTask();
+
+        for (SearchMode mode : new SearchMode[]{SearchMode.BREADTH_FIRST, SearchMode.UNIFORM_COST, SearchMode.A_STAR}) {
+            StripsSolver solver = new StripsSolver(mode);
+            StripsSolver pruningSolver = new StripsSolver(mode);
+            pruningSolver.setPruningPartialOrders(true);
+
+            Optional<List<ActionApplication>> expected = solver.getBestSolution(task);
+            Optional<List<ActionApplication>> solution = pruningSolver.getBestSolution(task);
+
+            // pruning must not cost optimality
+            assertThat(solution.get().size(), is(9));
+            assertThat(solution.get().size(), is(expected.get().size()));
+
+            assertTrue(pruningSolver.getStatistics().getExpandedNodes() < solver.getStatistics().getExpandedNodes());
+            assertTrue(pruningSolver.getStatistics().getPruningRatio() > 0.5);
+            assertThat(solver.getStatistics().getPruningRatio(), is(0.0));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.floric.studies.dellogics.model.strips.regression;
+
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.InstancedPredicate;
+import org.floric.studies.dellogics.model.strips.SearchMode;
+import org.floric.studies.dellogics.model.strips.StripsPlanningTask;
+import org.floric.studies.dellogics.model.strips.StripsSolver;
+import org.floric.studies.dellogics.model.strips.Symbol;
+import org.floric.studies.dellogics.model.strips.WalkersExample;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.Grounder;
+import org.floric.studies.dellogics.model.strips.grounding.PackedState;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class RegressionSearchTest {
+    // four agents may walk around, but only one of them has to arrive
+    private static final String PROBLEM = String.join("\n",
+            "(define (problem walkers-4)",
+            "  (:domain walkers)",
+            "  (:objects a b c d - agent l0 l1 l2 l3 - location)",
+            "  (:init (at a l0) (at b l0) (at c l0) (at d l0) (road l0 l1) (road l1 l2) (road l2 l3) (road l1 l0) (road l2 l1) (road l3 l2))",
+            "  (:goal (at a l3)))");
+
+    @Test
+    public void testSmallGoalIsRegressedWithFewerExpansions() {
+        StripsPlanningTask task = new WalkersExample().createTask(PROBLEM);
+
+        StripsSolver forwardSolver = new StripsSolver(SearchMode.BREADTH_FIRST);
+        StripsSolver regressionSolver = new StripsSolver(SearchMode.REGRESSION);
+        // the reduction would already drop the other agents, regression has to ignore them on its own
+        forwardSolver.setReducingTask(false);
+        regressionSolver.setReducingTask(false);
+
+        List<ActionApplication> expected = forwardSolver.getBestSolution(task).get();
+        List<ActionApplication> plan = regressionSolver.getBestSolution(task).get();
+        assertThat(plan.size(), is(3));
+        assertThat(plan.size(), is(expected.size()));
+
+        // the plan comes out of the search reversed, it has to be applicable from the start
+        Set<InstancedPredicate> state = task.getStartingState();
+        for (ActionApplication step : plan) {
+            assertTrue(step.getActionScheme().canApply(step.getSymbols(), state));
+            state = step.getActionScheme().apply(step.getSymbols(), state);
+        }
+        assertTrue(StripsSolver.isContainingGoalState(state, task.getGoalFormula()));
+
+        assertTrue(regressionSolver.getStatistics().getExpandedNodes() < forwardSolver.getStatistics().getExpandedNodes());
+    }
+
+    @Test
+    public void testMutexTable() {
+        GroundedTask task = new Grounder().ground(new WalkersExample().createTask());
+        MutexTable mutexes = new MutexTable(task);
+
+        // one agent is never at two places, different agents can be anywhere
+        assertFalse(mutexes.isMutexFree(getAtoms(task, "a l0", "a l1")));
+        assertFalse(mutexes.isMutexFree(getAtoms(task, "b l1", "c l2", "b l3")));
+        assertTrue(mutexes.isMutexFree(getAtoms(task, "a l1", "b l1")));
+        assertTrue(mutexes.isMutexFree(getAtoms(task, "a l3", "b l0", "c l2")));
+        assertTrue(mutexes.isMutexFree(getAtoms(task, "a l3")));
+    }
+
+    @Test
+    public void testMutexTableOfLongRoad() {
+        // a single agent on a road of 1500 locations, several thousand atoms in the grounded task
+        StripsPlanningTask task = new WalkersExample().createTask(createRoadProblem(1500));
+        GroundedTask groundedTask = new Grounder().ground(task);
+        assertTrue(groundedTask.getAtoms().size() > 3000);
+
+        MutexTable mutexes = new MutexTable(groundedTask);
+        assertFalse(mutexes.isMutexFree(getAtoms(groundedTask, "a l0", "a l1499")));
+        assertTrue(mutexes.isMutexFree(getAtoms(groundedTask, "a l1499")));
+
+        StripsSolver solver = new StripsSolver(SearchMode.REGRESSION);
+        solver.setReducingTask(false);
+        assertThat(solver.getBestSolution(task).get().size(), is(1499));
+    }
+
+    @Test
+    public void testSubsetIndex() {
+        SubsetIndex index = new SubsetIndex();
+        index.add(new int[]{2, 5});
+        index.add(new int[]{1, 3, 7});
+        index.add(new int[]{2, 5});
+
+        assertThat(index.size(), is(2));
+        assertTrue(index.containsSubsetOf(new int[]{1, 2, 4, 5}));
+        assertTrue(index.containsSubsetOf(new int[]{0, 1, 3, 6, 7}));
+        assertFalse(index.containsSubsetOf(new int[]{1, 2, 3}));
+        assertFalse(index.containsSubsetOf(new int[]{}));
+
+        index.add(new int[]{});
+        assertTrue(index.containsSubsetOf(new int[]{}));
+    }
+
+    private static String createRoadProblem(int locations) {
+        StringBuilder objects = new StringBuilder();
+        StringBuilder roads = new StringBuilder();
+        for (int i = 0; i < locations; i++) {
+            objects.append(" l").append(i);
+            if (i > 0) {
+                roads.append(String.format(" (road l%d l%d)", i - 1, i));
+            }
+        }
+
+        return String.join("\n",
+                "(define (problem road)",
+                "  (:domain walkers)",
+                "  (:objects a - agent" + objects + " - location)",
+                "  (:init (at a l0)" + roads + ")",
+                String.format("  (:goal (at a l%d)))", locations - 1));
+    }
+
+    // at atoms given as "agent location"
+    private static PackedState getAtoms(GroundedTask task, String... positions) {
+        int[] atomIds = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            String[] names = positions[i].split(" ");
+            atomIds[i] = IntStream.range(0, task.getAtoms().size())
+                    .filter(atomId -> isAt(task.getAtoms().getAtom(atomId), names))
+                    .findFirst()
+                    .getAsInt();
+        }
+        return PackedState.of(atomIds);
+    }
+
+    private static boolean isAt(InstancedPredicate atom, String[] names) {
+        List<String> symbols = atom.getSymbols().stream().map(Symbol::getName).collect(Collectors.toList());
+        return atom.getType().getName().equals("at") && symbols.equals(Arrays.asList(names));
+    }
+}
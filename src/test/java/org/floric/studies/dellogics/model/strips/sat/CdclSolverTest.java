@@ -0,0 +1,115 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class CdclSolverTest {
+
+    @Test
+    public void testRandomFormulasAgreeWithEnumeration() {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            int variableCount = 3 + random.nextInt(8);
+            // around the phase transition of random 3-sat, so both answers show up
+            int[][] clauses = new int[(int) (variableCount * 4.3)][3];
+            for (int[] clause : clauses) {
+                for (int i = 0; i < clause.length; i++) {
+                    clause[i] = (1 + random.nextInt(variableCount)) * (random.nextBoolean() ? 1 : -1);
+                }
+            }
+
+            CdclSolver solver = new CdclSolver();
+            for (int i = 0; i < variableCount; i++) {
+                solver.newVariable();
+            }
+            for (int[] clause : clauses) {
+                solver.addClause(clause);
+            }
+
+            SatResult result = solver.solve();
+            assertThat(result, is(isSatisfiable(clauses, variableCount) ? SatResult.SATISFIABLE : SatResult.UNSATISFIABLE));
+            if (result == SatResult.SATISFIABLE) {
+                assertTrue(isSatisfiedBy(clauses, solver::getValue));
+            }
+        }
+    }
+
+    @Test
+    public void testAssumptionsOnlyHoldForOneCall() {
+        CdclSolver solver = new CdclSolver();
+        int a = solver.newVariable();
+        int b = solver.newVariable();
+        solver.addClause(-a, b);
+        solver.addClause(-a, -b);
+
+        assertThat(solver.solve(a), is(SatResult.UNSATISFIABLE));
+        assertThat(solver.solve(), is(SatResult.SATISFIABLE));
+        assertFalse(solver.getValue(a));
+
+        assertThat(solver.solve(-a, b), is(SatResult.SATISFIABLE));
+        assertTrue(solver.getValue(b));
+    }
+
+    @Test
+    public void testPigeonholeIsUnsatisfiable() {
+        // six pigeons in five holes needs a lot of learning
+        int pigeons = 6;
+        int holes = 5;
+        CdclSolver solver = new CdclSolver();
+        int[][] variables = new int[pigeons][holes];
+        for (int p = 0; p < pigeons; p++) {
+            for (int h = 0; h < holes; h++) {
+                variables[p][h] = solver.newVariable();
+            }
+            solver.addClause(variables[p]);
+        }
+        for (int h = 0; h < holes; h++) {
+            for (int p = 0; p < pigeons; p++) {
+                for (int q = p + 1; q < pigeons; q++) {
+                    solver.addClause(-variables[p][h], -variables[q][h]);
+                }
+            }
+        }
+
+        assertThat(solver.solve(), is(SatResult.UNSATISFIABLE));
+        assertTrue(solver.getConflicts() > 0);
+        assertFalse(solver.addClause(variables[0][0]));
+    }
+
+    @Test
+    public void testLubySequence() {
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8};
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(CdclSolver.luby(i), is(expected[i]));
+        }
+    }
+
+    private static boolean isSatisfiable(int[][] clauses, int variableCount) {
+        for (int assignment = 0; assignment < 1 << variableCount; assignment++) {
+            int bits = assignment;
+            if (isSatisfiedBy(clauses, variable -> (bits >> (variable - 1) & 1) == 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSatisfiedBy(int[][] clauses, IntPredicate values) {
+        for (int[] clause : clauses) {
+            boolean isSatisfied = false;
+            for (int literal : clause) {
+                isSatisfied |= values.test(Math.abs(literal)) == literal > 0;
+            }
+            if (!isSatisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package org.floric.studies.dellogics.model.strips.sat;
+
+import org.floric.studies.dellogics.model.search.SearchControl;
+import org.floric.studies.dellogics.model.search.SearchStatus;
+import org.floric.studies.dellogics.model.strips.ActionApplication;
+import org.floric.studies.dellogics.model.strips.InstancedPredicate;
+import org.floric.studies.dellogics.model.strips.StripsPlanningTask;
+import org.floric.studies.dellogics.model.strips.StripsSolver;
+import org.floric.studies.dellogics.model.strips.WalkersExample;
+import org.floric.studies.dellogics.model.strips.grounding.GroundedTask;
+import org.floric.studies.dellogics.model.strips.grounding.Grounder;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class SatPlannerTest {
+    // the agents don't interfere, so they can all walk in the same steps
+    @Test
+    public void testParallelStepsAreFound() {
+        StripsPlanningTask task = new WalkersExample().createTask();
+        GroundedTask groundedTask = new Grounder().ground(task);
+
+        SatPlanner planner = new SatPlanner();
+        Optional<List<ActionApplication>> plan = planner.plan(groundedTask, SearchControl.unlimited());
+
+        assertTrue(plan.isPresent());
+        assertThat(planner.getHorizon(), is(3));
+        assertThat(plan.get().size(), is(9));
+        assertThat(planner.getStatistics().getStatus(), is(SearchStatus.SOLVED));
+
+        Set<InstancedPredicate> state = task.getStartingState();
+        for (ActionApplication step : plan.get()) {
+            assertTrue(step.getActionScheme().canApply(step.getSymbols(), state));
+            state = step.getActionScheme().apply(step.getSymbols(), state);
+        }
+        assertTrue(StripsSolver.isContainingGoalState(state, task.getGoalFormula()));
+    }
+
+    @Test
+    public void testSearchStopsAtMaxHorizon() {
+        GroundedTask groundedTask = new Grounder().ground(new WalkersExample().createTask());
+
+        SatPlanner planner = new SatPlanner();
+        planner.setMaxHorizon(2);
+
+        assertFalse(planner.plan(groundedTask, SearchControl.unlimited()).isPresent());
+        assertThat(planner.getStatistics().getStatus(), is(SearchStatus.HORIZON_LIMIT));
+    }
+}